@@ -0,0 +1,63 @@
+package com.theplumteam.migration;
+
+import com.theplumteam.BlockPopsMod;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+
+/**
+ * Rewrites saved data from before box colors became a block state property. Every color used
+ * to be its own block and item ({@code blockpops:box_block_<color>}); they are now the single
+ * {@code blockpops:box_block} with a {@code color} property. This works on raw NBT so it can run
+ * before the data is decoded, when the old names would otherwise be lost.
+ */
+public final class LegacyBoxMigration {
+    public static final String BOX_BLOCK = BlockPopsMod.MOD_ID + ":box_block";
+    private static final String LEGACY_PREFIX = BOX_BLOCK + "_";
+    public static final String COLOR_PROPERTY = "color";
+
+    private LegacyBoxMigration() {
+    }
+
+    /**
+     * Migrates the block state palettes of a saved chunk in place.
+     */
+    public static void migrateChunk(CompoundTag chunk) {
+        ListTag sections = chunk.getList("sections", Tag.TAG_COMPOUND);
+        for (int i = 0; i < sections.size(); i++) {
+            ListTag palette = sections.getCompound(i).getCompound("block_states").getList("palette", Tag.TAG_COMPOUND);
+            for (int j = 0; j < palette.size(); j++) {
+                CompoundTag state = palette.getCompound(j);
+                String color = getLegacyColor(state.getString("Name"));
+                if (color != null) {
+                    state.putString("Name", BOX_BLOCK);
+                    CompoundTag properties = state.getCompound("Properties");
+                    properties.putString(COLOR_PROPERTY, color);
+                    state.put("Properties", properties);
+                }
+            }
+        }
+    }
+
+    /**
+     * Migrates a saved item stack in place.
+     */
+    public static void migrateItemStack(CompoundTag stack) {
+        String color = getLegacyColor(stack.getString("id"));
+        if (color != null) {
+            stack.putString("id", BOX_BLOCK);
+            CompoundTag tag = stack.getCompound("tag");
+            CompoundTag blockStateTag = tag.getCompound("BlockStateTag");
+            blockStateTag.putString(COLOR_PROPERTY, color);
+            tag.put("BlockStateTag", blockStateTag);
+            stack.put("tag", tag);
+        }
+    }
+
+    /**
+     * Returns the color of a legacy per-color box id, or null if the id isn't one.
+     */
+    public static String getLegacyColor(String id) {
+        return id.startsWith(LEGACY_PREFIX) ? id.substring(LEGACY_PREFIX.length()) : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.theplumteam.mixin;
+
+import com.theplumteam.migration.LegacyBoxMigration;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.ai.village.poi.PoiManager;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ProtoChunk;
+import net.minecraft.world.level.chunk.storage.ChunkSerializer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(ChunkSerializer.class)
+public abstract class ChunkSerializerMixin {
+    @Inject(method = "read", at = @At("HEAD"))
+    private static void blockpops$migrateLegacyBoxes(ServerLevel level, PoiManager poiManager, ChunkPos pos, CompoundTag tag,
+                                                     CallbackInfoReturnable<ProtoChunk> cir) {
+        LegacyBoxMigration.migrateChunk(tag);
+    }
+}
@@ -0,0 +1,17 @@
+package com.theplumteam.mixin;
+
+import com.theplumteam.migration.LegacyBoxMigration;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.ItemStack;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(ItemStack.class)
+public abstract class ItemStackMixin {
+    @Inject(method = "of", at = @At("HEAD"))
+    private static void blockpops$migrateLegacyBoxes(CompoundTag tag, CallbackInfoReturnable<ItemStack> cir) {
+        LegacyBoxMigration.migrateItemStack(tag);
+    }
+}
@@ -1,15 +1,21 @@
 package com.theplumteam.block;
 
 import com.theplumteam.blockentity.BoxBlockEntity;
+import com.theplumteam.catalog.BoxCatalogs;
 import com.theplumteam.client.gui.FigurePositionScreen;
+import com.theplumteam.client.gui.FigureSelection;
+import com.theplumteam.item.GeoBlockItem;
 import com.theplumteam.registry.ModBlockEntities;
 import net.minecraft.client.Minecraft;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.network.chat.Component;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.context.BlockPlaceContext;
+import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.BaseEntityBlock;
 import net.minecraft.world.level.block.Block;
@@ -21,21 +27,24 @@ import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.StateDefinition;
 import net.minecraft.world.level.block.state.properties.DirectionProperty;
+import net.minecraft.world.level.block.state.properties.EnumProperty;
 import net.minecraft.world.phys.BlockHitResult;
 import org.jetbrains.annotations.Nullable;
 
 public class BoxBlock extends BaseEntityBlock {
     public static final DirectionProperty FACING = HorizontalDirectionalBlock.FACING;
-    private final PopBlockColor color;
+    // Named "color" to match the property written by LegacyBoxMigration for old per-color blocks
+    public static final EnumProperty<PopBlockColor> COLOR = EnumProperty.create("color", PopBlockColor.class);
 
-    public BoxBlock(Properties properties, PopBlockColor color) {
+    public BoxBlock(Properties properties) {
         super(properties);
-        this.color = color;
-        this.registerDefaultState(this.stateDefinition.any().setValue(FACING, Direction.NORTH));
+        this.registerDefaultState(this.stateDefinition.any()
+            .setValue(FACING, Direction.NORTH)
+            .setValue(COLOR, PopBlockColor.ORIGINAL));
     }
 
-    public PopBlockColor getColor() {
-        return color;
+    public static PopBlockColor getColor(BlockState state) {
+        return state.hasProperty(COLOR) ? state.getValue(COLOR) : PopBlockColor.ORIGINAL;
     }
 
     @Nullable
@@ -57,7 +66,31 @@ public class BoxBlock extends BaseEntityBlock {
 
     @Override
     public InteractionResult use(BlockState state, Level level, BlockPos pos, Player player, InteractionHand hand, BlockHitResult hit) {
-        if (level.isClientSide && player.isShiftKeyDown()) {
+        if (level.isClientSide && FigureSelection.isActive()) {
+            BlockEntity blockEntity = level.getBlockEntity(pos);
+            if (blockEntity instanceof BoxBlockEntity boxBlockEntity) {
+                if (player.isShiftKeyDown()) {
+                    // Add or remove the box from the multi-selection
+                    if (!FigureSelection.toggle(pos)) {
+                        player.displayClientMessage(Component.literal("Selection is full"), true);
+                    } else {
+                        player.displayClientMessage(Component.literal(FigureSelection.size() + " boxes selected"), true);
+                    }
+                    return InteractionResult.SUCCESS;
+                }
+                if (FigureSelection.contains(pos)) {
+                    // Open the figure position adjustment screen for the whole selection
+                    Minecraft.getInstance().setScreen(new FigurePositionScreen(
+                        FigureSelection.getPositions(),
+                        boxBlockEntity.getFigureOffsetX(),
+                        boxBlockEntity.getFigureOffsetY(),
+                        boxBlockEntity.getFigureOffsetZ(),
+                        boxBlockEntity.getFigureScale()
+                    ));
+                    return InteractionResult.SUCCESS;
+                }
+            }
+        } else if (level.isClientSide && player.isShiftKeyDown()) {
             BlockEntity blockEntity = level.getBlockEntity(pos);
             if (blockEntity instanceof BoxBlockEntity boxBlockEntity) {
                 // Open the figure position adjustment screen
@@ -74,17 +107,50 @@ public class BoxBlock extends BaseEntityBlock {
         return InteractionResult.PASS;
     }
 
+    @Override
+    public void onPlace(BlockState state, Level level, BlockPos pos, BlockState oldState, boolean movedByPiston) {
+        super.onPlace(state, level, pos, oldState, movedByPiston);
+        if (level.isClientSide) {
+            return;
+        }
+        if (!oldState.is(this)) {
+            BoxCatalogs.placed(level, pos, state.getValue(COLOR));
+        } else if (getColor(oldState) != getColor(state) && level.getBlockEntity(pos) instanceof BoxBlockEntity boxBlockEntity) {
+            // Recolored in place, e.g. by an item's BlockStateTag or /setblock. The block entity
+            // only receives the new state after this, so the color is passed along.
+            BoxCatalogs.update(boxBlockEntity, getColor(state));
+        }
+    }
+
+    @Override
+    public void onRemove(BlockState state, Level level, BlockPos pos, BlockState newState, boolean movedByPiston) {
+        if (!level.isClientSide && !newState.is(this)) {
+            BoxCatalogs.removed(level, pos);
+        }
+        super.onRemove(state, level, pos, newState, movedByPiston);
+    }
+
+    @Override
+    public ItemStack getCloneItemStack(BlockGetter level, BlockPos pos, BlockState state) {
+        // Pick block gives the box in the color it was placed with
+        return GeoBlockItem.createStack(this.asItem(), getColor(state));
+    }
+
     @Nullable
     @Override
     public BlockState getStateForPlacement(BlockPlaceContext context) {
         // Rotate 90 degrees counter-clockwise from player's facing direction to face the player
+        // The color is taken from the item right away, so the block is placed in its final color
+        // rather than recolored when BlockItem applies the BlockStateTag afterwards
         Direction playerFacing = context.getHorizontalDirection();
         Direction blockFacing = playerFacing.getCounterClockWise();
-        return this.defaultBlockState().setValue(FACING, blockFacing);
+        return this.defaultBlockState()
+            .setValue(FACING, blockFacing)
+            .setValue(COLOR, GeoBlockItem.getColor(context.getItemInHand()));
     }
 
     @Override
     protected void createBlockStateDefinition(StateDefinition.Builder<Block, BlockState> builder) {
-        builder.add(FACING);
+        builder.add(FACING, COLOR);
     }
 }
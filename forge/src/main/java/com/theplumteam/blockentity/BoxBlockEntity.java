@@ -2,6 +2,9 @@ package com.theplumteam.blockentity;
 
 import com.theplumteam.block.BoxBlock;
 import com.theplumteam.block.PopBlockColor;
+import com.theplumteam.catalog.BoxCatalogs;
+import com.theplumteam.client.ClientBoxHooks;
+import com.theplumteam.config.BlockPopsConfig;
 import com.theplumteam.figure.FigureType;
 import com.theplumteam.registry.ModBlockEntities;
 import net.minecraft.core.BlockPos;
@@ -13,6 +16,10 @@ import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.AABB;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.bernie.geckolib.animatable.GeoBlockEntity;
@@ -25,15 +32,30 @@ import software.bernie.geckolib.util.GeckoLibUtil;
 public class BoxBlockEntity extends BlockEntity implements GeoBlockEntity {
     private static final Logger LOGGER = LoggerFactory.getLogger(BoxBlockEntity.class);
 
-    private final AnimatableInstanceCache cache = GeckoLibUtil.createInstanceCache(this);
-    private static final RawAnimation BOX_ANIMATION = RawAnimation.begin().thenLoop("animation.box_block.idle");
-    private FigureType figureType = FigureType.DEFAULT;
-
+    // Animation state is only needed by the renderer, so it is created on first render
+    // and released again once the box has been out of view for a while
+    @Nullable
+    private AnimatableInstanceCache cache;
+    private long lastRenderedTick;
+    public static final String IDLE_ANIMATION = "animation.box_block.idle";
+    private static final RawAnimation BOX_ANIMATION = RawAnimation.begin().thenLoop(IDLE_ANIMATION);
     // Figure positioning - correct values found through testing
-    private double figureOffsetX = -0.60;
-    private double figureOffsetY = 0.0;
-    private double figureOffsetZ = -0.55;
-    private double figureScale = 1.0;
+    public static final FigureType DEFAULT_FIGURE_TYPE = FigureType.DEFAULT;
+    public static final double DEFAULT_OFFSET_X = -0.60;
+    public static final double DEFAULT_OFFSET_Y = 0.0;
+    public static final double DEFAULT_OFFSET_Z = -0.55;
+    public static final double DEFAULT_SCALE = 1.0;
+
+    private FigureType figureType = DEFAULT_FIGURE_TYPE;
+    private double figureOffsetX = DEFAULT_OFFSET_X;
+    private double figureOffsetY = DEFAULT_OFFSET_Y;
+    private double figureOffsetZ = DEFAULT_OFFSET_Z;
+    private double figureScale = DEFAULT_SCALE;
+    // Client only, set while the figure configuration hasn't arrived yet
+    private boolean figurePending;
+
+    // Changes smaller than this are below the resolution of the position screen sliders
+    private static final double FIGURE_VALUE_EPSILON = 1.0E-3;
 
     public BoxBlockEntity(BlockPos pos, BlockState blockState) {
         super(ModBlockEntities.BOX_BLOCK.get(), pos, blockState);
@@ -52,14 +74,31 @@ public class BoxBlockEntity extends BlockEntity implements GeoBlockEntity {
 
     @Override
     public AnimatableInstanceCache getAnimatableInstanceCache() {
+        if (cache == null) {
+            cache = GeckoLibUtil.createInstanceCache(this);
+        }
         return cache;
     }
 
-    public PopBlockColor getColor() {
-        if (getBlockState().getBlock() instanceof BoxBlock boxBlock) {
-            return boxBlock.getColor();
+    /**
+     * Called by the renderer every time this box is drawn, keeping its animation state alive.
+     */
+    public void markRendered() {
+        if (level != null) {
+            lastRenderedTick = level.getGameTime();
         }
-        return PopBlockColor.ORIGINAL;
+    }
+
+    public boolean hasAnimationState() {
+        return cache != null;
+    }
+
+    public void releaseAnimationState() {
+        cache = null;
+    }
+
+    public PopBlockColor getColor() {
+        return BoxBlock.getColor(getBlockState());
     }
 
     public FigureType getFigureType() {
@@ -67,11 +106,7 @@ public class BoxBlockEntity extends BlockEntity implements GeoBlockEntity {
     }
 
     public void setFigureType(FigureType figureType) {
-        this.figureType = figureType;
-        setChanged();
-        if (level != null && !level.isClientSide) {
-            level.sendBlockUpdated(getBlockPos(), getBlockState(), getBlockState(), 3);
-        }
+        edit().figureType(figureType).commit();
     }
 
     public double getFigureOffsetX() {
@@ -91,23 +126,105 @@ public class BoxBlockEntity extends BlockEntity implements GeoBlockEntity {
     }
 
     public void setFigureOffset(double x, double y, double z) {
-        this.figureOffsetX = x;
-        this.figureOffsetY = y;
-        this.figureOffsetZ = z;
-        setChanged();
-        if (level != null && !level.isClientSide) {
-            level.sendBlockUpdated(getBlockPos(), getBlockState(), getBlockState(), 3);
-        }
+        edit().offset(x, y, z).commit();
     }
 
     public void setFigureScale(double scale) {
-        this.figureScale = scale;
-        setChanged();
+        edit().scale(scale).commit();
+    }
+
+    /**
+     * Starts an edit of this box's figure configuration. Changes are staged on the returned
+     * {@link Edit} and applied together by {@link Edit#commit()}, which marks the block entity
+     * dirty and syncs it to clients at most once, and not at all if nothing actually changed.
+     */
+    public Edit edit() {
+        return new Edit();
+    }
+
+    private void syncToClients() {
         if (level != null && !level.isClientSide) {
             level.sendBlockUpdated(getBlockPos(), getBlockState(), getBlockState(), 3);
         }
     }
 
+    private static boolean differs(double current, double updated) {
+        return Math.abs(current - updated) >= FIGURE_VALUE_EPSILON;
+    }
+
+    public final class Edit {
+        private FigureType figureType = BoxBlockEntity.this.figureType;
+        private double offsetX = figureOffsetX;
+        private double offsetY = figureOffsetY;
+        private double offsetZ = figureOffsetZ;
+        private double scale = figureScale;
+
+        private Edit() {
+        }
+
+        public Edit figureType(FigureType figureType) {
+            this.figureType = figureType;
+            return this;
+        }
+
+        public Edit offset(double x, double y, double z) {
+            this.offsetX = x;
+            this.offsetY = y;
+            this.offsetZ = z;
+            return this;
+        }
+
+        public Edit scale(double scale) {
+            this.scale = scale;
+            return this;
+        }
+
+        /**
+         * Applies the staged values, saving and syncing the box if anything changed.
+         *
+         * @return whether any value actually changed
+         */
+        public boolean commit() {
+            if (!apply()) {
+                return false;
+            }
+            setChanged();
+            syncToClients();
+            return true;
+        }
+
+        /**
+         * Applies the staged values and marks the box dirty, but leaves syncing to the caller.
+         * Used by bulk tools that send one update for many boxes at once.
+         *
+         * @return whether any value actually changed
+         */
+        public boolean commitWithoutSync() {
+            if (!apply()) {
+                return false;
+            }
+            setChanged();
+            return true;
+        }
+
+        private boolean apply() {
+            boolean changed = figureType != BoxBlockEntity.this.figureType
+                || differs(figureOffsetX, offsetX)
+                || differs(figureOffsetY, offsetY)
+                || differs(figureOffsetZ, offsetZ)
+                || differs(figureScale, scale);
+            if (changed) {
+                BoxBlockEntity.this.figureType = figureType;
+                figureOffsetX = offsetX;
+                figureOffsetY = offsetY;
+                figureOffsetZ = offsetZ;
+                figureScale = scale;
+                BoxCatalogs.update(BoxBlockEntity.this);
+            }
+            return changed;
+        }
+    }
+
     @Override
     protected void saveAdditional(CompoundTag tag) {
         super.saveAdditional(tag);
@@ -136,26 +253,67 @@ public class BoxBlockEntity extends BlockEntity implements GeoBlockEntity {
         if (tag.contains("FigureScale")) {
             this.figureScale = tag.getDouble("FigureScale");
         }
+        // Loading from a saved chunk happens before the level is set, that data is already
+        // catalogued. A box in a level is only loaded again by placing it with BlockEntityTag,
+        // structures or /data, all of which can change its figure.
+        if (level != null && !level.isClientSide) {
+            BoxCatalogs.update(this);
+        }
     }
 
     // ===== CHUNK LOAD SYNCHRONIZATION =====
     // getUpdateTag() and handleUpdateTag() are used when chunks are loaded
-    // NOTE: getUpdateTag() is ALSO used by getUpdatePacket() for real-time sync!
-    // These ensure the client has the correct data when entering the area
+    // The chunk only carries what is needed to draw the box itself, the figure configuration
+    // follows separately through FigureStreamer, nearest boxes first
 
     @Override
     public CompoundTag getUpdateTag() {
-        // This is sent to the client when the chunk loads AND for real-time updates
-        // ClientboundBlockEntityDataPacket.create(this) internally calls this method
+        // This is sent to the client when the chunk loads. Facing and color are part of the
+        // block state, so only a marker is sent (empty tags are dropped from chunk packets)
         CompoundTag tag = super.getUpdateTag();
-        saveAdditional(tag);
+        tag.putBoolean("FigurePending", true);
         return tag;
     }
 
     @Override
     public void handleUpdateTag(CompoundTag tag) {
         // This is received on the client during chunk load
+        boolean wasPending = figurePending;
+        FigureType oldFigureType = figureType;
+        figurePending = tag.getBoolean("FigurePending");
         load(tag);
+        if (!figurePending) {
+            // Start loading the figure's assets before the box comes into view
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientBoxHooks.prefetchFigure(figureType));
+        }
+        if (figureType != oldFigureType || figurePending != wasPending) {
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientBoxHooks.updateCluster(this));
+        }
+    }
+
+    /**
+     * Whether the client is still waiting for this box's figure configuration, see FigureStreamer.
+     * The box is drawn without a figure until it arrives.
+     */
+    public boolean isFigurePending() {
+        return figurePending;
+    }
+
+    /**
+     * Applies a figure configuration streamed to the client by FigureStreamer.
+     */
+    public void applyStreamedFigure(FigureType figureType, double offsetX, double offsetY, double offsetZ, double scale) {
+        boolean clusterChanged = figurePending || figureType != this.figureType;
+        this.figureType = figureType;
+        this.figureOffsetX = offsetX;
+        this.figureOffsetY = offsetY;
+        this.figureOffsetZ = offsetZ;
+        this.figureScale = scale;
+        figurePending = false;
+        DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientBoxHooks.prefetchFigure(figureType));
+        if (clusterChanged) {
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientBoxHooks.updateCluster(this));
+        }
     }
 
     // ===== REAL-TIME SYNCHRONIZATION =====
@@ -166,8 +324,8 @@ public class BoxBlockEntity extends BlockEntity implements GeoBlockEntity {
     public Packet<ClientGamePacketListener> getUpdatePacket() {
         // Creates a packet for real-time synchronization
         // Called on the server when level.sendBlockUpdated() is invoked
-        // ClientboundBlockEntityDataPacket.create(this) calls getUpdateTag() to get the data
-        return ClientboundBlockEntityDataPacket.create(this);
+        // Unlike the chunk data this carries the full figure configuration
+        return ClientboundBlockEntityDataPacket.create(this, blockEntity -> blockEntity.saveWithoutMetadata());
     }
 
     @Override
@@ -176,17 +334,91 @@ public class BoxBlockEntity extends BlockEntity implements GeoBlockEntity {
         // This is what actually makes the changes appear immediately
         CompoundTag tag = packet.getTag();
         if (tag != null) {
+            boolean wasPending = figurePending;
+            FigureType oldFigureType = figureType;
             load(tag);
-            // Request a render update so the changes are visible immediately
-            if (level != null && level.isClientSide) {
-                level.sendBlockUpdated(getBlockPos(), getBlockState(), getBlockState(), 3);
+            figurePending = false;
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientBoxHooks.prefetchFigure(figureType));
+            if (figureType != oldFigureType || wasPending) {
+                // Boxes only cluster with neighbours showing the same figure
+                DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientBoxHooks.updateCluster(this));
+            }
+            // No render update is requested here: the box and figure are drawn entirely by the
+            // block entity renderer, which reads these fields every frame. Calling
+            // level.sendBlockUpdated() on the client would mark the whole chunk section dirty and
+            // force a re-mesh even though nothing in the chunk mesh changed. Block state changes
+            // (facing, color) arrive through regular block update packets and re-mesh on their own.
+        }
+    }
+
+    // ===== CLIENT-SIDE CLUSTERING =====
+    // Adjacent boxes facing the same way are drawn together, see BoxClusters
+
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (level != null && level.isClientSide) {
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientBoxHooks.updateCluster(this));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setBlockState(BlockState blockState) {
+        boolean turned = getBlockState().getValue(BoxBlock.FACING) != blockState.getValue(BoxBlock.FACING);
+        super.setBlockState(blockState);
+        if (turned && level != null && level.isClientSide) {
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientBoxHooks.updateCluster(this));
+        }
+    }
+
+    /**
+     * The render bounds of this box alone, {@link #getRenderBoundingBox()} covers the box's whole
+     * cluster when it leads one.
+     */
+    public AABB getBoxRenderBounds() {
+        return super.getRenderBoundingBox();
+    }
+
+    @Override
+    public AABB getRenderBoundingBox() {
+        if (level != null && level.isClientSide) {
+            AABB clusterBounds = DistExecutor.unsafeCallWhenOn(Dist.CLIENT, () -> () -> ClientBoxHooks.getClusterBounds(this));
+            if (clusterBounds != null) {
+                return clusterBounds;
             }
         }
+        return getBoxRenderBounds();
+    }
+
+    @Override
+    public void onChunkUnloaded() {
+        super.onChunkUnloaded();
+        releaseAnimationState();
+        if (level != null && level.isClientSide) {
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientBoxHooks.removeFromCluster(this));
+        }
+    }
+
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        releaseAnimationState();
+        if (level != null && level.isClientSide) {
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientBoxHooks.removeFromCluster(this));
+        }
     }
 
     public static <T extends BlockEntity> void tick(Level level, BlockPos pos, BlockState state, T blockEntity) {
         if (level.isClientSide && blockEntity instanceof BoxBlockEntity boxBlockEntity) {
             // Animation ticking handled automatically by GeckoLib
+            // Here we only drop the animation state of boxes that haven't been drawn recently
+            if (boxBlockEntity.cache != null) {
+                long timeoutTicks = BlockPopsConfig.CLIENT.animationCacheTimeoutSeconds.get() * 20L;
+                if (level.getGameTime() - boxBlockEntity.lastRenderedTick > timeoutTicks) {
+                    boxBlockEntity.releaseAnimationState();
+                }
+            }
         }
     }
 }
@@ -0,0 +1,286 @@
+package com.theplumteam.catalog;
+
+import com.theplumteam.block.PopBlockColor;
+import com.theplumteam.figure.FigureType;
+import net.minecraft.core.BlockPos;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent catalog of every box in one level, queryable without loading chunks.
+ *
+ * <p>Saved boxes live in a compact binary file that is memory-mapped for reading, so a large
+ * catalog costs page cache rather than heap. Changes since the last save are kept in a small
+ * in-memory overlay that takes precedence over the file, and are merged into a new file
+ * generation on level save. A new generation is written instead of replacing the mapped
+ * file because a mapped file can't be replaced on every platform while it is mapped.</p>
+ *
+ * <p>File layout: magic, version, record count and CRC32 of the records, followed by
+ * fixed-size records of position, color, figure type, figure offset and scale.</p>
+ */
+public class BoxCatalog {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoxCatalog.class);
+
+    private static final int MAGIC = 0x42504354; // "BPCT"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+    private static final int RECORD_SIZE = 8 + 1 + 1 + 4 * 4;
+    private static final Pattern FILE_NAME = Pattern.compile("blockpops_boxes\\.(\\d+)\\.bin");
+
+    // Marks a box removed since the last save
+    private static final Entry REMOVED = new Entry(0, PopBlockColor.ORIGINAL, FigureType.NONE, 0, 0, 0, 0);
+
+    private final Path directory;
+    private final Map<Long, Entry> overlay = new HashMap<>();
+    @Nullable
+    private MappedByteBuffer mapped;
+    private int recordCount;
+    private long generation;
+    private boolean rebuilding;
+
+    public record Entry(long pos, PopBlockColor color, FigureType figureType,
+                        float offsetX, float offsetY, float offsetZ, float scale) {
+        public BlockPos blockPos() {
+            return BlockPos.of(pos);
+        }
+    }
+
+    BoxCatalog(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Maps the newest valid catalog file.
+     *
+     * @return false if there is no valid file and the catalog has to be rebuilt
+     */
+    boolean open() {
+        long newest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "blockpops_boxes.*.bin")) {
+            for (Path file : files) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    newest = Math.max(newest, Long.parseLong(matcher.group(1)));
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to list box catalog files in {}", directory, e);
+        }
+        if (newest < 0) {
+            return false;
+        }
+
+        generation = newest;
+        try {
+            map(getFile(generation));
+            deleteOldGenerations();
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("Box catalog {} is unreadable or corrupt, rebuilding", getFile(generation), e);
+            mapped = null;
+            recordCount = 0;
+            return false;
+        }
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding;
+    }
+
+    void setRebuilding(boolean rebuilding) {
+        this.rebuilding = rebuilding;
+    }
+
+    public void put(Entry entry) {
+        overlay.put(entry.pos, entry);
+    }
+
+    public void remove(BlockPos pos) {
+        overlay.put(pos.asLong(), REMOVED);
+    }
+
+    /**
+     * Passes every catalogued box matching the filter to the consumer.
+     */
+    public void query(Predicate<Entry> filter, Consumer<Entry> consumer) {
+        if (mapped != null) {
+            for (int i = 0; i < recordCount; i++) {
+                Entry entry = readRecord(mapped, HEADER_SIZE + i * RECORD_SIZE);
+                if (!overlay.containsKey(entry.pos) && filter.test(entry)) {
+                    consumer.accept(entry);
+                }
+            }
+        }
+        for (Entry entry : overlay.values()) {
+            if (entry != REMOVED && filter.test(entry)) {
+                consumer.accept(entry);
+            }
+        }
+    }
+
+    /**
+     * Merges unsaved changes into a new catalog file generation.
+     */
+    void save() {
+        if (overlay.isEmpty() || rebuilding) {
+            return;
+        }
+        try {
+            write(null);
+        } catch (IOException e) {
+            LOGGER.error("Failed to save box catalog in {}", directory, e);
+        }
+    }
+
+    /**
+     * Replaces the saved catalog with rebuilt entries, keeping changes made while rebuilding.
+     */
+    void installRebuilt(Collection<Entry> entries) {
+        rebuilding = false;
+        try {
+            write(entries);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write rebuilt box catalog in {}", directory, e);
+        }
+    }
+
+    private void write(@Nullable Collection<Entry> base) throws IOException {
+        long nextGeneration = generation + 1;
+        Path file = getFile(nextGeneration);
+        Files.createDirectories(directory);
+
+        CRC32 crc = new CRC32();
+        int count = 0;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(HEADER_SIZE);
+
+            if (base != null) {
+                for (Entry entry : base) {
+                    if (!overlay.containsKey(entry.pos)) {
+                        writeRecord(channel, record, crc, entry);
+                        count++;
+                    }
+                }
+            } else if (mapped != null) {
+                for (int i = 0; i < recordCount; i++) {
+                    Entry entry = readRecord(mapped, HEADER_SIZE + i * RECORD_SIZE);
+                    if (!overlay.containsKey(entry.pos)) {
+                        writeRecord(channel, record, crc, entry);
+                        count++;
+                    }
+                }
+            }
+            for (Entry entry : overlay.values()) {
+                if (entry != REMOVED) {
+                    writeRecord(channel, record, crc, entry);
+                    count++;
+                }
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(count).putLong(crc.getValue()).flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+
+        map(file);
+        generation = nextGeneration;
+        overlay.clear();
+        deleteOldGenerations();
+    }
+
+    private void map(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Truncated header");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Unknown format");
+        }
+        int count = buffer.getInt(8);
+        if (count < 0 || buffer.capacity() != HEADER_SIZE + (long) count * RECORD_SIZE) {
+            throw new IOException("Record count doesn't match file size");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE, count * RECORD_SIZE));
+        if (crc.getValue() != buffer.getLong(12)) {
+            throw new IOException("Checksum mismatch");
+        }
+        for (int i = 0; i < count; i++) {
+            int offset = HEADER_SIZE + i * RECORD_SIZE;
+            if (Byte.toUnsignedInt(buffer.get(offset + 8)) >= PopBlockColor.values().length
+                || Byte.toUnsignedInt(buffer.get(offset + 9)) >= FigureType.values().length) {
+                throw new IOException("Invalid record " + i);
+            }
+        }
+
+        mapped = buffer;
+        recordCount = count;
+    }
+
+    private void deleteOldGenerations() {
+        // Best effort, files still mapped by a previous generation may refuse to be deleted
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "blockpops_boxes.*.bin")) {
+            for (Path file : files) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && Long.parseLong(matcher.group(1)) < generation) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Couldn't delete old box catalog files in {}", directory, e);
+        }
+    }
+
+    private Path getFile(long generation) {
+        return directory.resolve("blockpops_boxes." + generation + ".bin");
+    }
+
+    private static Entry readRecord(ByteBuffer buffer, int offset) {
+        return new Entry(
+            buffer.getLong(offset),
+            PopBlockColor.values()[Byte.toUnsignedInt(buffer.get(offset + 8))],
+            FigureType.values()[Byte.toUnsignedInt(buffer.get(offset + 9))],
+            buffer.getFloat(offset + 10),
+            buffer.getFloat(offset + 14),
+            buffer.getFloat(offset + 18),
+            buffer.getFloat(offset + 22));
+    }
+
+    private static void writeRecord(FileChannel channel, ByteBuffer record, CRC32 crc, Entry entry) throws IOException {
+        record.clear();
+        record.putLong(entry.pos)
+            .put((byte) entry.color.ordinal())
+            .put((byte) entry.figureType.ordinal())
+            .putFloat(entry.offsetX)
+            .putFloat(entry.offsetY)
+            .putFloat(entry.offsetZ)
+            .putFloat(entry.scale)
+            .flip();
+        crc.update(record.duplicate());
+        channel.write(record);
+    }
+}
@@ -0,0 +1,150 @@
+package com.theplumteam.catalog;
+
+import com.theplumteam.block.BoxBlock;
+import com.theplumteam.block.PopBlockColor;
+import com.theplumteam.blockentity.BoxBlockEntity;
+import com.theplumteam.figure.FigureType;
+import com.theplumteam.migration.LegacyBoxMigration;
+import com.theplumteam.registry.ModBlockEntities;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.chunk.storage.ChunkStorage;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rebuilds a {@link BoxCatalog} by reading every saved chunk of a level straight from its
+ * region files, without loading the chunks into the world. Meant to run off the server thread.
+ */
+final class BoxCatalogRebuilder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoxCatalogRebuilder.class);
+    private static final Pattern REGION_FILE = Pattern.compile("r\\.(-?\\d+)\\.(-?\\d+)\\.mca");
+
+    private BoxCatalogRebuilder() {
+    }
+
+    static List<BoxCatalog.Entry> scan(Path regionDirectory, ChunkStorage storage) {
+        String boxId = BlockEntityType.getKey(ModBlockEntities.BOX_BLOCK.get()).toString();
+        List<BoxCatalog.Entry> entries = new ArrayList<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(regionDirectory, "r.*.mca")) {
+            for (Path file : files) {
+                Matcher matcher = REGION_FILE.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                int regionX = Integer.parseInt(matcher.group(1));
+                int regionZ = Integer.parseInt(matcher.group(2));
+
+                // Request the whole region at once, the storage worker reads them in order
+                List<CompletableFuture<Optional<CompoundTag>>> chunks = new ArrayList<>(32 * 32);
+                for (int z = 0; z < 32; z++) {
+                    for (int x = 0; x < 32; x++) {
+                        chunks.add(storage.read(new ChunkPos((regionX << 5) + x, (regionZ << 5) + z)));
+                    }
+                }
+                for (CompletableFuture<Optional<CompoundTag>> chunk : chunks) {
+                    chunk.join().ifPresent(tag -> scanChunk(tag, boxId, entries));
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to list region files in {}", regionDirectory, e);
+        }
+        return entries;
+    }
+
+    private static void scanChunk(CompoundTag chunk, String boxId, List<BoxCatalog.Entry> entries) {
+        ListTag blockEntities = chunk.getList("block_entities", Tag.TAG_COMPOUND);
+        for (int i = 0; i < blockEntities.size(); i++) {
+            CompoundTag tag = blockEntities.getCompound(i);
+            if (!boxId.equals(tag.getString("id"))) {
+                continue;
+            }
+            int x = tag.getInt("x");
+            int y = tag.getInt("y");
+            int z = tag.getInt("z");
+            // Missing keys fall back to the same defaults BoxBlockEntity.load() keeps
+            entries.add(new BoxCatalog.Entry(
+                BlockPos.asLong(x, y, z),
+                getColor(blockStateAt(chunk, x, y, z)),
+                tag.contains("FigureType") ? FigureType.fromString(tag.getString("FigureType")) : BoxBlockEntity.DEFAULT_FIGURE_TYPE,
+                getFloat(tag, "FigureOffsetX", BoxBlockEntity.DEFAULT_OFFSET_X),
+                getFloat(tag, "FigureOffsetY", BoxBlockEntity.DEFAULT_OFFSET_Y),
+                getFloat(tag, "FigureOffsetZ", BoxBlockEntity.DEFAULT_OFFSET_Z),
+                getFloat(tag, "FigureScale", BoxBlockEntity.DEFAULT_SCALE)));
+        }
+    }
+
+    private static float getFloat(CompoundTag tag, String key, double fallback) {
+        return (float) (tag.contains(key, Tag.TAG_ANY_NUMERIC) ? tag.getDouble(key) : fallback);
+    }
+
+    private static PopBlockColor getColor(@Nullable CompoundTag blockState) {
+        if (blockState == null) {
+            return PopBlockColor.ORIGINAL;
+        }
+        // Chunks that haven't been loaded since colors became a state property still use
+        // the old per-color block names
+        String colorName = LegacyBoxMigration.getLegacyColor(blockState.getString("Name"));
+        if (colorName == null) {
+            colorName = blockState.getCompound("Properties").getString(BoxBlock.COLOR.getName());
+        }
+        return BoxBlock.COLOR.getValue(colorName).orElse(PopBlockColor.ORIGINAL);
+    }
+
+    /**
+     * Looks up the palette entry (block name and properties) at a position in a saved chunk's
+     * paletted block states.
+     */
+    @Nullable
+    private static CompoundTag blockStateAt(CompoundTag chunk, int x, int y, int z) {
+        int sectionY = SectionPos.blockToSectionCoord(y);
+        ListTag sections = chunk.getList("sections", Tag.TAG_COMPOUND);
+        for (int i = 0; i < sections.size(); i++) {
+            CompoundTag section = sections.getCompound(i);
+            if (section.getByte("Y") != sectionY) {
+                continue;
+            }
+
+            CompoundTag blockStates = section.getCompound("block_states");
+            ListTag palette = blockStates.getList("palette", Tag.TAG_COMPOUND);
+            if (palette.isEmpty()) {
+                return null;
+            }
+            long[] data = blockStates.getLongArray("data");
+            if (palette.size() == 1 || data.length == 0) {
+                return palette.getCompound(0);
+            }
+
+            // Entries never span two longs, see SimpleBitStorage
+            int bits = Math.max(4, Mth.ceillog2(palette.size()));
+            int valuesPerLong = 64 / bits;
+            int index = ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+            if (index / valuesPerLong >= data.length) {
+                return null;
+            }
+            long word = data[index / valuesPerLong];
+            int paletteIndex = (int) ((word >>> ((index % valuesPerLong) * bits)) & ((1L << bits) - 1));
+            return paletteIndex < palette.size() ? palette.getCompound(paletteIndex) : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,140 @@
+package com.theplumteam.catalog;
+
+import com.theplumteam.BlockPopsMod;
+import com.theplumteam.block.PopBlockColor;
+import com.theplumteam.blockentity.BoxBlockEntity;
+import com.theplumteam.figure.FigureType;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Owns the {@link BoxCatalog} of every loaded server level and keeps them up to date.
+ */
+@Mod.EventBusSubscriber(modid = BlockPopsMod.MOD_ID)
+public final class BoxCatalogs {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoxCatalogs.class);
+
+    private static final Map<ResourceKey<Level>, BoxCatalog> CATALOGS = new HashMap<>();
+
+    private BoxCatalogs() {
+    }
+
+    @Nullable
+    public static BoxCatalog get(Level level) {
+        return level instanceof ServerLevel ? CATALOGS.get(level.dimension()) : null;
+    }
+
+    public static void update(BoxBlockEntity box) {
+        update(box, box.getColor());
+    }
+
+    /**
+     * Records a box with a color that differs from its block entity's current block state.
+     */
+    public static void update(BoxBlockEntity box, PopBlockColor color) {
+        BoxCatalog catalog = box.getLevel() != null ? get(box.getLevel()) : null;
+        if (catalog != null) {
+            catalog.put(new BoxCatalog.Entry(box.getBlockPos().asLong(), color, box.getFigureType(),
+                (float) box.getFigureOffsetX(), (float) box.getFigureOffsetY(), (float) box.getFigureOffsetZ(),
+                (float) box.getFigureScale()));
+        }
+    }
+
+    /**
+     * Records a newly placed box. Its block entity doesn't exist yet at this point, so the
+     * figure defaults are used.
+     */
+    public static void placed(Level level, BlockPos pos, PopBlockColor color) {
+        BoxCatalog catalog = get(level);
+        if (catalog != null) {
+            catalog.put(new BoxCatalog.Entry(pos.asLong(), color, BoxBlockEntity.DEFAULT_FIGURE_TYPE,
+                (float) BoxBlockEntity.DEFAULT_OFFSET_X, (float) BoxBlockEntity.DEFAULT_OFFSET_Y,
+                (float) BoxBlockEntity.DEFAULT_OFFSET_Z, (float) BoxBlockEntity.DEFAULT_SCALE));
+        }
+    }
+
+    public static void removed(Level level, BlockPos pos) {
+        BoxCatalog catalog = get(level);
+        if (catalog != null) {
+            catalog.remove(pos);
+        }
+    }
+
+    /**
+     * Rebuilds the catalog of a level from its region files in the background.
+     *
+     * @return false if the level has no catalog or it is already being rebuilt
+     */
+    public static boolean rebuild(ServerLevel level) {
+        BoxCatalog catalog = CATALOGS.get(level.dimension());
+        if (catalog == null || catalog.isRebuilding()) {
+            return false;
+        }
+        catalog.setRebuilding(true);
+        LOGGER.info("Rebuilding box catalog for {}", level.dimension().location());
+
+        Path regionDirectory = getDimensionDirectory(level).resolve("region");
+        CompletableFuture.supplyAsync(() -> BoxCatalogRebuilder.scan(regionDirectory, level.getChunkSource().chunkMap), Util.backgroundExecutor())
+            .whenCompleteAsync((entries, error) -> {
+                if (error != null) {
+                    LOGGER.error("Failed to rebuild box catalog for {}", level.dimension().location(), error);
+                    catalog.setRebuilding(false);
+                } else if (CATALOGS.get(level.dimension()) == catalog) {
+                    catalog.installRebuilt(entries);
+                    LOGGER.info("Rebuilt box catalog for {} with {} boxes", level.dimension().location(), entries.size());
+                }
+            }, level.getServer());
+        return true;
+    }
+
+    private static Path getDimensionDirectory(ServerLevel level) {
+        return DimensionType.getStorageFolder(level.dimension(), level.getServer().getWorldPath(LevelResource.ROOT));
+    }
+
+    @SubscribeEvent
+    public static void onLevelLoad(LevelEvent.Load event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            BoxCatalog catalog = new BoxCatalog(getDimensionDirectory(level).resolve("data"));
+            CATALOGS.put(level.dimension(), catalog);
+            if (!catalog.open()) {
+                rebuild(level);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelSave(LevelEvent.Save event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            BoxCatalog catalog = get(level);
+            if (catalog != null) {
+                catalog.save();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            BoxCatalog catalog = CATALOGS.remove(level.dimension());
+            if (catalog != null) {
+                catalog.save();
+            }
+        }
+    }
+}
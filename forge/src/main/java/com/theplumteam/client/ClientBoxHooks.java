@@ -0,0 +1,41 @@
+package com.theplumteam.client;
+
+import com.theplumteam.blockentity.BoxBlockEntity;
+import com.theplumteam.client.model.FigureAssets;
+import com.theplumteam.client.renderer.BoxCluster;
+import com.theplumteam.client.renderer.BoxClusters;
+import com.theplumteam.figure.FigureType;
+import net.minecraft.world.phys.AABB;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Client-only work triggered from {@link BoxBlockEntity}. The block
+ * entity is loaded on dedicated servers too, so it only reaches these through
+ * {@link net.minecraftforge.fml.DistExecutor}, which keeps the client classes behind them from
+ * being loaded there.
+ */
+public final class ClientBoxHooks {
+    private ClientBoxHooks() {
+    }
+
+    public static void prefetchFigure(FigureType figureType) {
+        FigureAssets.prefetch(figureType);
+    }
+
+    public static void updateCluster(BoxBlockEntity box) {
+        BoxClusters.update(box);
+    }
+
+    public static void removeFromCluster(BoxBlockEntity box) {
+        BoxClusters.remove(box);
+    }
+
+    /**
+     * The bounds of the cluster the box leads, or null if it doesn't lead one.
+     */
+    @Nullable
+    public static AABB getClusterBounds(BoxBlockEntity box) {
+        BoxCluster cluster = BoxClusters.get(box);
+        return cluster != null && cluster.isLeader(box) ? cluster.getBounds() : null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.theplumteam.client;
+
+import com.theplumteam.blockentity.BoxBlockEntity;
+import com.theplumteam.network.FigureStreamPacket;
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+
+import java.util.List;
+
+/**
+ * Client side of the packets sent to the client. The packet classes are registered on both
+ * sides, so they only call these through {@link net.minecraftforge.fml.DistExecutor}.
+ */
+public final class ClientPacketHandlers {
+    private ClientPacketHandlers() {
+    }
+
+    public static void handleFigureStream(List<FigureStreamPacket.Entry> entries) {
+        Level level = Minecraft.getInstance().level;
+        if (level == null) {
+            return;
+        }
+        for (FigureStreamPacket.Entry entry : entries) {
+            // Boxes unloaded since are skipped, they are streamed again when their chunk returns
+            BlockEntity blockEntity = level.isLoaded(entry.pos()) ? level.getBlockEntity(entry.pos()) : null;
+            if (blockEntity instanceof BoxBlockEntity box) {
+                box.applyStreamedFigure(entry.figureType(), entry.offsetX(), entry.offsetY(), entry.offsetZ(), entry.scale());
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.theplumteam.client.animation;
+
+import com.eliotlash.mclib.math.Constant;
+import com.eliotlash.mclib.math.IValue;
+import org.jetbrains.annotations.Nullable;
+import software.bernie.geckolib.core.animatable.model.CoreGeoBone;
+import software.bernie.geckolib.core.animation.Animation;
+import software.bernie.geckolib.core.animation.EasingType;
+import software.bernie.geckolib.core.keyframe.AnimationPoint;
+import software.bernie.geckolib.core.keyframe.BoneAnimation;
+import software.bernie.geckolib.core.keyframe.Keyframe;
+import software.bernie.geckolib.core.keyframe.KeyframeStack;
+import software.bernie.geckolib.core.state.BoneSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An animation sampled at a fixed rate into per-bone lookup tables, so playing it back is an
+ * indexed lookup plus a lerp instead of GeckoLib's per-frame keyframe interpolation.
+ *
+ * <p>Only animations the tables reproduce exactly are compiled: constant, linearly eased
+ * keyframes that start and end on sample points, where a lerp between two samples gives the
+ * same value GeckoLib would. Anything using Molang, other easings (step, catmull-rom, the
+ * ease-in/out curves) or off-grid keyframe times is left to GeckoLib.</p>
+ */
+public final class AnimationTable {
+    // Samples per game tick, keyframes in BlockPops animations sit on much coarser boundaries
+    private static final int SAMPLES_PER_TICK = 2;
+    // Keyframe times are parsed from seconds, so allow for rounding when checking them against the samples
+    private static final double FRAME_EPSILON = 1.0E-4;
+
+    public static final AnimationTable EMPTY = new AnimationTable(0, false, List.of());
+
+    private final double length;
+    private final boolean loop;
+    private final List<BoneTrack> tracks;
+
+    private AnimationTable(double length, boolean loop, List<BoneTrack> tracks) {
+        this.length = length;
+        this.loop = loop;
+        this.tracks = tracks;
+    }
+
+    /**
+     * Samples the given animation, or returns null if any of its keyframes can't be reproduced
+     * exactly from the samples.
+     */
+    @Nullable
+    public static AnimationTable compile(Animation animation) {
+        double length = animation.length();
+        int frames = Math.max(1, (int) Math.ceil(length * SAMPLES_PER_TICK)) + 1;
+        List<BoneTrack> tracks = new ArrayList<>();
+
+        for (BoneAnimation boneAnimation : animation.boneAnimations()) {
+            if (!isCompilable(boneAnimation.rotationKeyFrames())
+                || !isCompilable(boneAnimation.positionKeyFrames())
+                || !isCompilable(boneAnimation.scaleKeyFrames())) {
+                return null;
+            }
+            tracks.add(new BoneTrack(boneAnimation.boneName(),
+                sample(boneAnimation.rotationKeyFrames(), frames),
+                sample(boneAnimation.positionKeyFrames(), frames),
+                sample(boneAnimation.scaleKeyFrames(), frames)));
+        }
+
+        return new AnimationTable(length, animation.loopType() == Animation.LoopType.LOOP, List.copyOf(tracks));
+    }
+
+    /**
+     * Poses the bones for the given animation time in ticks, mirroring how GeckoLib's
+     * AnimationProcessor applies keyframe values to bones.
+     */
+    public void apply(double animTick, Function<String, CoreGeoBone> boneLookup) {
+        if (tracks.isEmpty()) {
+            return;
+        }
+
+        double time = loop && length > 0 ? animTick % length : Math.min(animTick, length);
+        double frame = time * SAMPLES_PER_TICK;
+        int index = (int) frame;
+        float delta = (float) (frame - index);
+
+        for (BoneTrack track : tracks) {
+            CoreGeoBone bone = boneLookup.apply(track.boneName);
+            if (bone == null) {
+                continue;
+            }
+            BoneSnapshot initial = bone.getInitialSnapshot();
+
+            if (track.rotation != null) {
+                bone.setRotX(lerp(track.rotation, index, 0, delta) + initial.getRotX());
+                bone.setRotY(lerp(track.rotation, index, 1, delta) + initial.getRotY());
+                bone.setRotZ(lerp(track.rotation, index, 2, delta) + initial.getRotZ());
+                bone.markRotationAsChanged();
+            }
+            if (track.position != null) {
+                bone.setPosX(lerp(track.position, index, 0, delta));
+                bone.setPosY(lerp(track.position, index, 1, delta));
+                bone.setPosZ(lerp(track.position, index, 2, delta));
+                bone.markPositionAsChanged();
+            }
+            if (track.scale != null) {
+                bone.setScaleX(lerp(track.scale, index, 0, delta));
+                bone.setScaleY(lerp(track.scale, index, 1, delta));
+                bone.setScaleZ(lerp(track.scale, index, 2, delta));
+                bone.markScaleAsChanged();
+            }
+        }
+    }
+
+    private static float lerp(float[] samples, int index, int axis, float delta) {
+        int frames = samples.length / 3;
+        int current = Math.min(index, frames - 1) * 3 + axis;
+        int next = Math.min(index + 1, frames - 1) * 3 + axis;
+        return samples[current] + (samples[next] - samples[current]) * delta;
+    }
+
+    private static boolean isCompilable(KeyframeStack<Keyframe<IValue>> stack) {
+        return isCompilable(stack.xKeyframes()) && isCompilable(stack.yKeyframes()) && isCompilable(stack.zKeyframes());
+    }
+
+    private static boolean isCompilable(List<Keyframe<IValue>> keyframes) {
+        double end = 0;
+        for (Keyframe<IValue> keyframe : keyframes) {
+            if (!(keyframe.startValue() instanceof Constant) || !(keyframe.endValue() instanceof Constant)
+                || keyframe.easingType() != EasingType.LINEAR) {
+                return false;
+            }
+            // A keyframe boundary between two samples would be cut off by the lerp
+            end += keyframe.length();
+            double frame = end * SAMPLES_PER_TICK;
+            if (Math.abs(frame - Math.rint(frame)) > FRAME_EPSILON) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Samples an x/y/z keyframe stack into interleaved xyz floats, or null if it has no keyframes.
+     */
+    @Nullable
+    private static float[] sample(KeyframeStack<Keyframe<IValue>> stack, int frames) {
+        if (!stack.hasKeyframes()) {
+            return null;
+        }
+        float[] samples = new float[frames * 3];
+        for (int frame = 0; frame < frames; frame++) {
+            double tick = (double) frame / SAMPLES_PER_TICK;
+            samples[frame * 3] = (float) valueAt(stack.xKeyframes(), tick);
+            samples[frame * 3 + 1] = (float) valueAt(stack.yKeyframes(), tick);
+            samples[frame * 3 + 2] = (float) valueAt(stack.zKeyframes(), tick);
+        }
+        return samples;
+    }
+
+    private static double valueAt(List<Keyframe<IValue>> keyframes, double tick) {
+        if (keyframes.isEmpty()) {
+            return 0;
+        }
+        double start = 0;
+        for (Keyframe<IValue> keyframe : keyframes) {
+            if (tick < start + keyframe.length()) {
+                AnimationPoint point = new AnimationPoint(keyframe, tick - start, keyframe.length(),
+                    keyframe.startValue().get(), keyframe.endValue().get());
+                return EasingType.lerpWithOverride(point, null);
+            }
+            start += keyframe.length();
+        }
+        return keyframes.get(keyframes.size() - 1).endValue().get();
+    }
+
+    private record BoneTrack(String boneName, @Nullable float[] rotation, @Nullable float[] position, @Nullable float[] scale) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.theplumteam.client.animation;
+
+import com.theplumteam.blockentity.BoxBlockEntity;
+import net.minecraft.client.Minecraft;
+import net.minecraft.resources.ResourceLocation;
+import software.bernie.geckolib.core.animatable.model.CoreGeoBone;
+import software.bernie.geckolib.core.animation.AnimatableManager;
+import software.bernie.geckolib.core.animation.Animation;
+import software.bernie.geckolib.core.animation.AnimationProcessor;
+import software.bernie.geckolib.core.animation.AnimationState;
+import software.bernie.geckolib.model.GeoModel;
+import software.bernie.geckolib.util.RenderUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compiled {@link AnimationTable}s for the BlockPops models. Each animation is compiled once
+ * after a resource reload and reused by every box.
+ */
+public final class AnimationTables {
+    // Empty optional = the animation needs Molang and must go through GeckoLib
+    private static final Map<ResourceLocation, Optional<AnimationTable>> TABLES = new HashMap<>();
+
+    private AnimationTables() {
+    }
+
+    public static void clear() {
+        TABLES.clear();
+    }
+
+    /**
+     * Plays the box idle animation from its lookup table instead of through GeckoLib's
+     * animation processor.
+     *
+     * @return false if the animation can't be played from a table and the caller should fall
+     *         back to {@link GeoModel#handleAnimations}
+     */
+    public static boolean play(GeoModel<BoxBlockEntity> model, BoxBlockEntity animatable, long instanceId,
+                               AnimationState<BoxBlockEntity> animationState) {
+        Optional<AnimationTable> table = getTable(model, animatable);
+        if (table.isEmpty()) {
+            return false;
+        }
+
+        Minecraft mc = Minecraft.getInstance();
+        AnimatableManager<BoxBlockEntity> manager = animatable.getAnimatableInstanceCache().getManagerForId(instanceId);
+        double currentTick = RenderUtils.getCurrentTick();
+        if (manager.getFirstTickTime() == -1) {
+            manager.startedAt(currentTick + mc.getFrameTime());
+        }
+        if (!mc.isPaused()) {
+            manager.updatedAt(currentTick - manager.getFirstTickTime());
+        }
+
+        AnimationProcessor<BoxBlockEntity> processor = model.getAnimationProcessor();
+        table.get().apply(manager.getLastUpdateTime(), processor::getBone);
+        model.setCustomAnimations(animatable, instanceId, animationState);
+        return true;
+    }
+
+    /**
+     * Poses the bones at the first frame of the idle animation, without touching the box's
+     * animation state.
+     *
+     * @return false if the animation can't be played from a table
+     */
+    public static boolean poseStatic(GeoModel<BoxBlockEntity> model, BoxBlockEntity animatable) {
+        Optional<AnimationTable> table = getTable(model, animatable);
+        if (table.isEmpty()) {
+            return false;
+        }
+        table.get().apply(0, model.getAnimationProcessor()::getBone);
+        return true;
+    }
+
+    private static Optional<AnimationTable> getTable(GeoModel<BoxBlockEntity> model, BoxBlockEntity animatable) {
+        ResourceLocation animationResource = model.getAnimationResource(animatable);
+        return TABLES.computeIfAbsent(animationResource, location -> {
+            Animation animation = model.getAnimation(animatable, BoxBlockEntity.IDLE_ANIMATION);
+            // GeckoLib plays nothing for a missing animation either
+            return animation == null ? Optional.of(AnimationTable.EMPTY) : Optional.ofNullable(AnimationTable.compile(animation));
+        });
+    }
+}
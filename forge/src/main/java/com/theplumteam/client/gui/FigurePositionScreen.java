@@ -1,6 +1,7 @@
 package com.theplumteam.client.gui;
 
 import com.theplumteam.forge.BlockPopsModForge;
+import com.theplumteam.network.FigureBatchEditPacket;
 import com.theplumteam.network.FigurePositionPacket;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
@@ -12,10 +13,13 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 public class FigurePositionScreen extends Screen {
     private static final Logger LOGGER = LoggerFactory.getLogger(FigurePositionScreen.class);
 
-    private final BlockPos blockPos;
+    // The first position is the box the sliders were initialized from
+    private final List<BlockPos> blockPositions;
     private double offsetX;
     private double offsetY;
     private double offsetZ;
@@ -26,15 +30,34 @@ public class FigurePositionScreen extends Screen {
     private AbstractSliderButton sliderZ;
     private AbstractSliderButton sliderScale;
 
+    // Multi-select: in relative mode every update sends the total slider movement since the mode
+    // was entered, which the server applies to each box's values from that moment
+    private static int lastRelativeSession;
+    private boolean relative;
+    private int relativeSession;
+    private double baseX;
+    private double baseY;
+    private double baseZ;
+    private double baseScale;
+
     public FigurePositionScreen(BlockPos blockPos, double offsetX, double offsetY, double offsetZ, double scale) {
+        this(List.of(blockPos), offsetX, offsetY, offsetZ, scale);
+    }
+
+    public FigurePositionScreen(List<BlockPos> blockPositions, double offsetX, double offsetY, double offsetZ, double scale) {
         super(Component.literal("Adjust Figure Position"));
-        this.blockPos = blockPos;
+        this.blockPositions = List.copyOf(blockPositions);
         this.offsetX = offsetX;
         this.offsetY = offsetY;
         this.offsetZ = offsetZ;
         this.scale = scale;
-        LOGGER.info("FigurePositionScreen opened at {} with offsets: X={}, Y={}, Z={}, Scale={}",
-                    blockPos, offsetX, offsetY, offsetZ, scale);
+        resetRelativeBase();
+        LOGGER.info("FigurePositionScreen opened for {} boxes at {} with offsets: X={}, Y={}, Z={}, Scale={}",
+                    blockPositions.size(), blockPositions.get(0), offsetX, offsetY, offsetZ, scale);
+    }
+
+    private boolean isMultiSelect() {
+        return blockPositions.size() > 1;
     }
 
     @Override
@@ -52,7 +75,6 @@ public class FigurePositionScreen extends Screen {
             protected void updateMessage() {
                 offsetX = (this.value * 2.0) - 1.0;
                 this.setMessage(Component.literal("X Offset: " + String.format("%.2f", offsetX)));
-                sendUpdate(); // Update in real-time
             }
 
             @Override
@@ -71,7 +93,6 @@ public class FigurePositionScreen extends Screen {
             protected void updateMessage() {
                 offsetY = (this.value * 2.0) - 1.0;
                 this.setMessage(Component.literal("Y Offset: " + String.format("%.2f", offsetY)));
-                sendUpdate(); // Update in real-time
             }
 
             @Override
@@ -90,7 +111,6 @@ public class FigurePositionScreen extends Screen {
             protected void updateMessage() {
                 offsetZ = (this.value * 2.0) - 1.0;
                 this.setMessage(Component.literal("Z Offset: " + String.format("%.2f", offsetZ)));
-                sendUpdate(); // Update in real-time
             }
 
             @Override
@@ -109,7 +129,6 @@ public class FigurePositionScreen extends Screen {
             protected void updateMessage() {
                 scale = 0.1 + (this.value * 1.9);
                 this.setMessage(Component.literal("Scale: " + String.format("%.2f", scale)));
-                sendUpdate(); // Update in real-time
             }
 
             @Override
@@ -134,6 +153,39 @@ public class FigurePositionScreen extends Screen {
         this.addRenderableWidget(Button.builder(Component.literal("Done"), button -> {
             this.onClose();
         }).bounds(centerX + 5, startY + 120, 95, 20).build());
+
+        // Select More Button - closes the screen and lets the player shift + right-click more boxes
+        this.addRenderableWidget(Button.builder(Component.literal("Select More"), button -> {
+            FigureSelection.start(blockPositions);
+            this.onClose();
+        }).bounds(centerX - 100, startY + 150, 95, 20).build());
+
+        if (isMultiSelect()) {
+            // Mode Button - absolute sets every box to the slider values, relative moves and scales them alike
+            this.addRenderableWidget(Button.builder(getModeLabel(), button -> {
+                relative = !relative;
+                resetRelativeBase();
+                button.setMessage(getModeLabel());
+            }).bounds(centerX + 5, startY + 150, 95, 20).build());
+
+            // Clear Selection Button
+            this.addRenderableWidget(Button.builder(Component.literal("Clear Selection"), button -> {
+                FigureSelection.clear();
+                this.onClose();
+            }).bounds(centerX - 100, startY + 180, 200, 20).build());
+        }
+    }
+
+    private Component getModeLabel() {
+        return Component.literal(relative ? "Mode: Relative" : "Mode: Absolute");
+    }
+
+    private void resetRelativeBase() {
+        baseX = offsetX;
+        baseY = offsetY;
+        baseZ = offsetZ;
+        baseScale = scale;
+        relativeSession = ++lastRelativeSession;
     }
 
     @Override
@@ -147,7 +199,10 @@ public class FigurePositionScreen extends Screen {
         // Draw current values
         int centerX = this.width / 2;
         int startY = this.height / 2 - 80;
-        guiGraphics.drawString(this.font, "Adjust the sliders to position the figure", centerX - 80, startY, 0xAAAAAA);
+        String hint = isMultiSelect()
+            ? "Adjusting " + blockPositions.size() + " selected figures"
+            : "Adjust the sliders to position the figure";
+        guiGraphics.drawString(this.font, hint, centerX - 80, startY, 0xAAAAAA);
     }
 
     @Override
@@ -157,10 +212,27 @@ public class FigurePositionScreen extends Screen {
     }
 
     private void sendUpdate() {
+        if (isMultiSelect()) {
+            sendBatchUpdate();
+            return;
+        }
         // Send packet to server with new values
         LOGGER.info("Sending update - Position: {}, Offsets: X={}, Y={}, Z={}, Scale={}",
-                    blockPos, offsetX, offsetY, offsetZ, scale);
-        FigurePositionPacket packet = new FigurePositionPacket(blockPos, offsetX, offsetY, offsetZ, scale);
+                    blockPositions.get(0), offsetX, offsetY, offsetZ, scale);
+        FigurePositionPacket packet = new FigurePositionPacket(blockPositions.get(0), offsetX, offsetY, offsetZ, scale);
+        BlockPopsModForge.NETWORK_CHANNEL.sendToServer(packet);
+    }
+
+    private void sendBatchUpdate() {
+        // One packet for the whole selection
+        FigureBatchEditPacket packet;
+        if (relative) {
+            // Offsets move every box by the same amount, scale changes every box by the same factor
+            packet = new FigureBatchEditPacket(blockPositions, true, relativeSession,
+                offsetX - baseX, offsetY - baseY, offsetZ - baseZ, scale / baseScale);
+        } else {
+            packet = new FigureBatchEditPacket(blockPositions, false, 0, offsetX, offsetY, offsetZ, scale);
+        }
         BlockPopsModForge.NETWORK_CHANNEL.sendToServer(packet);
     }
 
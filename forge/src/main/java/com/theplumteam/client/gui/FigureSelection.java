@@ -0,0 +1,83 @@
+package com.theplumteam.client.gui;
+
+import com.theplumteam.BlockPopsMod;
+import com.theplumteam.network.FigureBatchEditPacket;
+import net.minecraft.core.BlockPos;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Boxes picked for the multi-select mode of {@link FigurePositionScreen}. While selecting,
+ * shift + right-click toggles a box and right-click on a selected box opens the editor for
+ * the whole selection. The selection is dropped when the player leaves the level it was made in.
+ */
+@Mod.EventBusSubscriber(modid = BlockPopsMod.MOD_ID, value = Dist.CLIENT)
+public final class FigureSelection {
+    private static final Set<BlockPos> SELECTED = new LinkedHashSet<>();
+    private static boolean active;
+
+    private FigureSelection() {
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    public static void start(List<BlockPos> positions) {
+        active = true;
+        SELECTED.clear();
+        SELECTED.addAll(positions);
+    }
+
+    public static void clear() {
+        active = false;
+        SELECTED.clear();
+    }
+
+    public static boolean contains(BlockPos pos) {
+        return SELECTED.contains(pos);
+    }
+
+    /**
+     * @return false if the box couldn't be added because the selection is full
+     */
+    public static boolean toggle(BlockPos pos) {
+        if (SELECTED.remove(pos)) {
+            return true;
+        }
+        if (SELECTED.size() >= FigureBatchEditPacket.MAX_POSITIONS) {
+            return false;
+        }
+        SELECTED.add(pos.immutable());
+        return true;
+    }
+
+    public static int size() {
+        return SELECTED.size();
+    }
+
+    public static List<BlockPos> getPositions() {
+        return new ArrayList<>(SELECTED);
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        clear();
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        // Also covers dimension changes, which replace the client level
+        if (event.getLevel().isClientSide()) {
+            clear();
+        }
+    }
+}
@@ -2,11 +2,13 @@ package com.theplumteam.client.model;
 
 import com.theplumteam.BlockPopsMod;
 import com.theplumteam.blockentity.BoxBlockEntity;
+import com.theplumteam.client.animation.AnimationTables;
 import net.minecraft.resources.ResourceLocation;
+import software.bernie.geckolib.core.animation.AnimationState;
 import software.bernie.geckolib.model.GeoModel;
 
 public class BoxBlockModel extends GeoModel<BoxBlockEntity> {
-    private static final ResourceLocation MODEL = new ResourceLocation(BlockPopsMod.MOD_ID, "geo/block/box_block.geo.json");
+    static final ResourceLocation MODEL = new ResourceLocation(BlockPopsMod.MOD_ID, "geo/block/box_block.geo.json");
     private static final ResourceLocation ANIMATION = new ResourceLocation(BlockPopsMod.MOD_ID, "animations/block/box_block.animation.json");
 
     @Override
@@ -24,4 +26,12 @@ public class BoxBlockModel extends GeoModel<BoxBlockEntity> {
     public ResourceLocation getAnimationResource(BoxBlockEntity animatable) {
         return ANIMATION;
     }
+
+    @Override
+    public void handleAnimations(BoxBlockEntity animatable, long instanceId, AnimationState<BoxBlockEntity> animationState) {
+        // Use the precompiled lookup table when the animation allows it
+        if (!AnimationTables.play(this, animatable, instanceId, animationState)) {
+            super.handleAnimations(animatable, instanceId, animationState);
+        }
+    }
 }
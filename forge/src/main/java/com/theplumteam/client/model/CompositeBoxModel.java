@@ -0,0 +1,163 @@
+package com.theplumteam.client.model;
+
+import com.theplumteam.BlockPopsMod;
+import com.theplumteam.blockentity.BoxBlockEntity;
+import com.theplumteam.client.animation.AnimationTables;
+import com.theplumteam.figure.FigureType;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
+import software.bernie.geckolib.GeckoLibException;
+import software.bernie.geckolib.cache.GeckoLibCache;
+import software.bernie.geckolib.cache.object.BakedGeoModel;
+import software.bernie.geckolib.cache.object.GeoBone;
+import software.bernie.geckolib.core.animation.AnimationState;
+import software.bernie.geckolib.core.state.BoneSnapshot;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The box model with the figure attached as an extra top-level bone, so box and figure share one
+ * bone tree, one animation pass and one render traversal. The figure's bones hang under
+ * {@link #FIGURE_MOUNT}, which the renderer uses to switch to the figure texture and apply the
+ * per-box figure offset and scale.
+ */
+public class CompositeBoxModel extends BoxBlockModel {
+    public static final String FIGURE_MOUNT = "blockpops_figure_mount";
+
+    // Keyed by the figure's model resource, the box model itself for FigureType.NONE
+    private static final Map<ResourceLocation, BakedGeoModel> COMPOSITES = new HashMap<>();
+    private static final Map<FigureType, FigureLod> LODS = new EnumMap<>(FigureType.class);
+
+    @Nullable
+    private BakedGeoModel currentModel;
+    private boolean staticPose;
+    private boolean sharedPose;
+
+    public static void clearCache() {
+        COMPOSITES.clear();
+        LODS.clear();
+    }
+
+    /**
+     * Assembles the composite for a figure ahead of its first render, and stores the figure's
+     * simplified levels if they were generated.
+     */
+    public static void prepare(FigureType figureType, @Nullable FigureLod lod) {
+        if (figureType.hasFigure()) {
+            COMPOSITES.computeIfAbsent(new ResourceLocation(BlockPopsMod.MOD_ID, figureType.getModelPath()), CompositeBoxModel::assemble);
+            if (lod != null) {
+                LODS.put(figureType, lod);
+            }
+        }
+    }
+
+    @Nullable
+    public static FigureLod getLod(FigureType figureType) {
+        return LODS.get(figureType);
+    }
+
+    /**
+     * Makes following renders use the first animation frame instead of advancing the animation,
+     * set by the renderer for boxes outside the render budget.
+     */
+    public void setStaticPose(boolean staticPose) {
+        this.staticPose = staticPose;
+    }
+
+    /**
+     * Makes following renders keep the pose the bones already have, set by the renderer while it
+     * draws the rest of a cluster after its leader.
+     */
+    public void setSharedPose(boolean sharedPose) {
+        this.sharedPose = sharedPose;
+    }
+
+    @Override
+    public void handleAnimations(BoxBlockEntity animatable, long instanceId, AnimationState<BoxBlockEntity> animationState) {
+        if (sharedPose) {
+            return;
+        }
+        if (staticPose && AnimationTables.poseStatic(this, animatable)) {
+            return;
+        }
+        super.handleAnimations(animatable, instanceId, animationState);
+    }
+
+    @Override
+    public ResourceLocation getModelResource(BoxBlockEntity animatable) {
+        // The plain box doubles as the placeholder until the figure's configuration and assets have arrived
+        FigureType figureType = animatable.getFigureType();
+        if (!figureType.hasFigure() || animatable.isFigurePending() || !FigureAssets.isReady(figureType)) {
+            return MODEL;
+        }
+        return new ResourceLocation(BlockPopsMod.MOD_ID, figureType.getModelPath());
+    }
+
+    @Override
+    public BakedGeoModel getBakedModel(ResourceLocation location) {
+        BakedGeoModel model = COMPOSITES.computeIfAbsent(location, CompositeBoxModel::assemble);
+        if (model != currentModel) {
+            getAnimationProcessor().setActiveModel(model);
+            currentModel = model;
+        }
+        return model;
+    }
+
+    private static BakedGeoModel assemble(ResourceLocation figureLocation) {
+        BakedGeoModel box = getCachedModel(MODEL);
+        if (figureLocation.equals(MODEL)) {
+            return box;
+        }
+
+        // Bones are copied so the figure can hang under the mount without touching
+        // GeckoLib's cached figure model
+        BakedGeoModel figure = getCachedModel(figureLocation);
+        GeoBone mount = new GeoBone(null, FIGURE_MOUNT, false, null, false, false);
+        for (GeoBone bone : figure.topLevelBones()) {
+            mount.getChildBones().add(copyBone(mount, bone));
+        }
+
+        List<GeoBone> topLevelBones = new ArrayList<>(box.topLevelBones());
+        topLevelBones.add(mount);
+        return new BakedGeoModel(topLevelBones, box.properties());
+    }
+
+    static BakedGeoModel getCachedModel(ResourceLocation location) {
+        BakedGeoModel model = GeckoLibCache.getBakedModels().get(location);
+        if (model == null) {
+            throw new GeckoLibException(location, "Unable to find model");
+        }
+        return model;
+    }
+
+    private static GeoBone copyBone(GeoBone parent, GeoBone source) {
+        GeoBone copy = new GeoBone(parent, source.getName(), source.getMirror(), source.getInflate(),
+            source.shouldNeverRender(), source.getReset());
+        copy.setPivotX(source.getPivotX());
+        copy.setPivotY(source.getPivotY());
+        copy.setPivotZ(source.getPivotZ());
+
+        // The rest pose, from the snapshot if the source was ever animated, since animations
+        // reset the bones to it rather than to identity
+        BoneSnapshot rest = source.getInitialSnapshot();
+        if (rest != null) {
+            copy.updateRotation(rest.getRotX(), rest.getRotY(), rest.getRotZ());
+            copy.updatePosition(rest.getOffsetX(), rest.getOffsetY(), rest.getOffsetZ());
+            copy.updateScale(rest.getScaleX(), rest.getScaleY(), rest.getScaleZ());
+        } else {
+            copy.updateRotation(source.getRotX(), source.getRotY(), source.getRotZ());
+            copy.updatePosition(source.getPosX(), source.getPosY(), source.getPosZ());
+            copy.updateScale(source.getScaleX(), source.getScaleY(), source.getScaleZ());
+        }
+        copy.saveInitialSnapshot();
+        copy.getCubes().addAll(source.getCubes());
+        for (GeoBone child : source.getChildBones()) {
+            copy.getChildBones().add(copyBone(copy, child));
+        }
+        return copy;
+    }
+}
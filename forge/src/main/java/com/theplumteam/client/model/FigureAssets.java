@@ -0,0 +1,108 @@
+package com.theplumteam.client.model;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import com.theplumteam.BlockPopsMod;
+import com.theplumteam.figure.FigureType;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.bernie.geckolib.cache.GeckoLibCache;
+import software.bernie.geckolib.cache.object.BakedGeoModel;
+
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads figure assets in the background as soon as a box with that figure arrives from the
+ * server, instead of inline on the first frame that draws it. Until a figure is ready the
+ * renderer draws the box without it.
+ */
+public final class FigureAssets {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FigureAssets.class);
+
+    // Client thread only, the futures also complete on the client thread
+    private static final Map<FigureType, CompletableFuture<Void>> LOADS = new EnumMap<>(FigureType.class);
+    // Bumped on resource reload, loads started before that are dropped when they finish
+    private static int generation;
+
+    private FigureAssets() {
+    }
+
+    public static void prefetch(FigureType figureType) {
+        if (figureType.hasFigure() && !LOADS.containsKey(figureType)) {
+            LOADS.put(figureType, load(figureType));
+        }
+    }
+
+    public static boolean isReady(FigureType figureType) {
+        if (!figureType.hasFigure()) {
+            return true;
+        }
+        prefetch(figureType);
+        return LOADS.get(figureType).isDone();
+    }
+
+    public static void clear() {
+        LOADS.clear();
+        generation++;
+    }
+
+    private static CompletableFuture<Void> load(FigureType figureType) {
+        Minecraft mc = Minecraft.getInstance();
+        ResourceLocation texture = new ResourceLocation(BlockPopsMod.MOD_ID, figureType.getTexturePath());
+        ResourceLocation model = new ResourceLocation(BlockPopsMod.MOD_ID, figureType.getModelPath());
+
+        // The texture is decoded on a background thread and uploaded on the client thread, while
+        // the simplified levels are generated on another background thread. Once both are done
+        // the composite model is assembled on the client thread.
+        // GeckoLib replaces its baked models on the client thread during a resource reload, so the
+        // model and texture resource are looked up here rather than on the background thread.
+        int loadGeneration = generation;
+        BakedGeoModel bakedModel = GeckoLibCache.getBakedModels().get(model);
+        Optional<Resource> textureResource = mc.getResourceManager().getResource(texture);
+        CompletableFuture<Void> textureLoad = mc.getTextureManager().preload(texture, Util.backgroundExecutor());
+        CompletableFuture<FigureLod> lodBuild = CompletableFuture.supplyAsync(() -> buildLod(model, bakedModel, textureResource), Util.backgroundExecutor());
+        return textureLoad.thenAcceptBothAsync(lodBuild, (ignored, lod) -> {
+                // A reload happened meanwhile, the next prefetch starts over with the new assets
+                if (loadGeneration == generation) {
+                    CompositeBoxModel.prepare(figureType, lod);
+                }
+            }, mc)
+            .exceptionally(e -> {
+                LOGGER.warn("Failed to prefetch assets for figure {}", figureType.getSerializedName(), e);
+                return null;
+            });
+    }
+
+    @Nullable
+    private static FigureLod buildLod(ResourceLocation model, @Nullable BakedGeoModel bakedModel, Optional<Resource> texture) {
+        if (bakedModel == null) {
+            LOGGER.warn("Failed to generate simplified meshes for {}, the model isn't loaded", model);
+            return null;
+        }
+        NativeImage image = null;
+        try {
+            if (texture.isPresent()) {
+                try (InputStream stream = texture.get().open()) {
+                    image = NativeImage.read(stream);
+                }
+            }
+            return FigureLod.build(bakedModel, image);
+        } catch (Exception e) {
+            // The figure still renders, just always at full detail
+            LOGGER.warn("Failed to generate simplified meshes for {}", model, e);
+            return null;
+        } finally {
+            if (image != null) {
+                image.close();
+            }
+        }
+    }
+}
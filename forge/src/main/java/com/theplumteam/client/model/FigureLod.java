@@ -0,0 +1,299 @@
+package com.theplumteam.client.model;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import com.theplumteam.config.BlockPopsConfig;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.Direction;
+import net.minecraft.util.FastColor;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector3f;
+import software.bernie.geckolib.cache.object.BakedGeoModel;
+import software.bernie.geckolib.cache.object.GeoBone;
+import software.bernie.geckolib.cache.object.GeoCube;
+import software.bernie.geckolib.cache.object.GeoQuad;
+import software.bernie.geckolib.cache.object.GeoVertex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Simplified versions of a figure's geometry for drawing it at a distance, generated once when
+ * the figure's assets load. Level 0 is the model as authored and is never stored here.
+ *
+ * <ul>
+ *     <li>Level 1 drops faces and cubes hidden behind fully opaque cubes of the same bone, and
+ *     cubes smaller than half a model pixel.</li>
+ *     <li>Level 2 additionally drops see-through shells (second skin layers) that hug the cube
+ *     they wrap, and cubes smaller than 1.5 model pixels.</li>
+ * </ul>
+ *
+ * <p>Only bone-local geometry is simplified, since bones move independently when animated.
+ * Every bone keeps at least its largest cube so the silhouette survives at any level.</p>
+ */
+public final class FigureLod {
+    public static final int LEVELS = 3;
+
+    private static final float PIXEL = 1 / 16f;
+    private static final float EPSILON = 1.0E-4f;
+    // Cubes whose largest side is below this many model pixels are dropped, per level
+    private static final float[] MIN_DETAIL = {0, 0.5f, 1.5f};
+    // How far a see-through shell may stick out of the cube it wraps and still be dropped at level 2
+    private static final float SHELL_TOLERANCE = 1.0f * PIXEL;
+
+    // Bone name to the cubes of levels 1 and up
+    private final Map<String, List<List<GeoCube>>> bones;
+    private final float height;
+
+    private FigureLod(Map<String, List<List<GeoCube>>> bones, float height) {
+        this.bones = bones;
+        this.height = height;
+    }
+
+    /**
+     * Returns the cubes of a bone at a level, or null to draw the bone as authored.
+     */
+    @Nullable
+    public List<GeoCube> getCubes(String bone, int level) {
+        if (level <= 0) {
+            return null;
+        }
+        List<List<GeoCube>> levels = bones.get(bone);
+        return levels != null ? levels.get(Math.min(level, LEVELS - 1) - 1) : null;
+    }
+
+    /**
+     * Height of the unscaled figure in blocks.
+     */
+    public float getHeight() {
+        return height;
+    }
+
+    /**
+     * Picks the level for a figure of the given height in blocks, seen from the given distance,
+     * based on how many pixels tall it appears on screen.
+     */
+    public static int selectLevel(double figureHeight, double distance) {
+        if (!BlockPopsConfig.CLIENT.figureLodEnabled.get() || distance < EPSILON) {
+            return 0;
+        }
+        Minecraft mc = Minecraft.getInstance();
+        double halfFov = Math.toRadians(mc.options.fov().get()) / 2;
+        double pixels = figureHeight * mc.getWindow().getHeight() / (2 * distance * Math.tan(halfFov));
+
+        if (pixels >= BlockPopsConfig.CLIENT.figureLodFullDetailPixels.get()) {
+            return 0;
+        }
+        return pixels >= BlockPopsConfig.CLIENT.figureLodSimplifiedPixels.get() ? 1 : 2;
+    }
+
+    /**
+     * Generates the simplified levels of a figure model. The texture decides which cubes are
+     * opaque enough to hide others; without it nothing is treated as opaque.
+     */
+    public static FigureLod build(BakedGeoModel figure, @Nullable NativeImage texture) {
+        Map<String, List<List<GeoCube>>> bones = new HashMap<>();
+        float[] modelBounds = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (GeoBone bone : figure.topLevelBones()) {
+            buildBone(bone, texture, bones, modelBounds);
+        }
+        float height = modelBounds[4] > modelBounds[1] ? modelBounds[4] - modelBounds[1] : 1;
+        return new FigureLod(bones, height);
+    }
+
+    private static void buildBone(GeoBone bone, @Nullable NativeImage texture,
+                                  Map<String, List<List<GeoCube>>> bones, float[] modelBounds) {
+        List<GeoCube> cubes = bone.getCubes();
+        if (!cubes.isEmpty()) {
+            List<CubeInfo> infos = new ArrayList<>(cubes.size());
+            for (GeoCube cube : cubes) {
+                CubeInfo info = new CubeInfo(cube, texture);
+                infos.add(info);
+                for (int i = 0; i < 3; i++) {
+                    modelBounds[i] = Math.min(modelBounds[i], info.bounds[i]);
+                    modelBounds[i + 3] = Math.max(modelBounds[i + 3], info.bounds[i + 3]);
+                }
+            }
+
+            List<List<GeoCube>> levels = new ArrayList<>(LEVELS - 1);
+            for (int level = 1; level < LEVELS; level++) {
+                levels.add(simplify(infos, level));
+            }
+            bones.put(bone.getName(), levels);
+        }
+
+        for (GeoBone child : bone.getChildBones()) {
+            buildBone(child, texture, bones, modelBounds);
+        }
+    }
+
+    private static List<GeoCube> simplify(List<CubeInfo> cubes, int level) {
+        CubeInfo largest = cubes.get(0);
+        for (CubeInfo cube : cubes) {
+            if (cube.volume() > largest.volume()) {
+                largest = cube;
+            }
+        }
+
+        List<CubeInfo> kept = new ArrayList<>(cubes.size());
+        for (CubeInfo cube : cubes) {
+            if (cube != largest && (cube.maxSide() < MIN_DETAIL[level] * PIXEL || level >= 2 && isLooseShell(cube, cubes))) {
+                continue;
+            }
+            kept.add(cube);
+        }
+
+        List<GeoCube> result = new ArrayList<>(kept.size());
+        for (CubeInfo cube : kept) {
+            List<GeoQuad> visible = new ArrayList<>(cube.quads.size());
+            for (GeoQuad quad : cube.quads) {
+                if (!isHidden(quad, cube, kept)) {
+                    visible.add(quad);
+                }
+            }
+            if (visible.size() == cube.quads.size()) {
+                result.add(cube.cube);
+            } else if (!visible.isEmpty()) {
+                GeoCube source = cube.cube;
+                result.add(new GeoCube(visible.toArray(new GeoQuad[0]), source.pivot(), source.rotation(),
+                    source.size(), source.inflate(), source.mirror()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether a see-through cube only wraps another cube closely, like a second skin layer.
+     */
+    private static boolean isLooseShell(CubeInfo shell, List<CubeInfo> cubes) {
+        if (shell.opaque) {
+            return false;
+        }
+        for (CubeInfo inner : cubes) {
+            if (inner == shell || !inner.sameTransform(shell)) {
+                continue;
+            }
+            boolean wraps = true;
+            for (int i = 0; i < 3 && wraps; i++) {
+                float below = inner.bounds[i] - shell.bounds[i];
+                float above = shell.bounds[i + 3] - inner.bounds[i + 3];
+                wraps = below >= -EPSILON && above >= -EPSILON && below <= SHELL_TOLERANCE && above <= SHELL_TOLERANCE;
+            }
+            if (wraps) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a face lies inside, or flush against, a fully opaque cube of the same bone.
+     */
+    private static boolean isHidden(GeoQuad quad, CubeInfo owner, List<CubeInfo> cubes) {
+        Direction direction = quad.direction();
+        int axis = direction.getAxis().ordinal();
+        float[] quadBounds = bounds(quad);
+        float plane = quadBounds[axis];
+        boolean positive = direction.getAxisDirection() == Direction.AxisDirection.POSITIVE;
+
+        for (CubeInfo cube : cubes) {
+            if (cube == owner || !cube.opaque || !cube.sameTransform(owner)) {
+                continue;
+            }
+            boolean covers = positive
+                ? cube.bounds[axis] <= plane + EPSILON && cube.bounds[axis + 3] > plane + EPSILON
+                : cube.bounds[axis + 3] >= plane - EPSILON && cube.bounds[axis] < plane - EPSILON;
+            for (int i = 0; i < 3 && covers; i++) {
+                if (i != axis) {
+                    covers = cube.bounds[i] <= quadBounds[i] + EPSILON && cube.bounds[i + 3] >= quadBounds[i + 3] - EPSILON;
+                }
+            }
+            if (covers) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static float[] bounds(GeoQuad quad) {
+        float[] bounds = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (GeoVertex vertex : quad.vertices()) {
+            Vector3f position = vertex.position();
+            bounds[0] = Math.min(bounds[0], position.x());
+            bounds[1] = Math.min(bounds[1], position.y());
+            bounds[2] = Math.min(bounds[2], position.z());
+            bounds[3] = Math.max(bounds[3], position.x());
+            bounds[4] = Math.max(bounds[4], position.y());
+            bounds[5] = Math.max(bounds[5], position.z());
+        }
+        return bounds;
+    }
+
+    private static final class CubeInfo {
+        final GeoCube cube;
+        final List<GeoQuad> quads = new ArrayList<>(6);
+        // Unrotated bounds in bone space, min xyz then max xyz
+        final float[] bounds = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        final boolean opaque;
+
+        CubeInfo(GeoCube cube, @Nullable NativeImage texture) {
+            this.cube = cube;
+            boolean opaque = texture != null;
+            for (GeoQuad quad : cube.quads()) {
+                if (quad == null) {
+                    continue;
+                }
+                quads.add(quad);
+                float[] quadBounds = FigureLod.bounds(quad);
+                for (int i = 0; i < 3; i++) {
+                    bounds[i] = Math.min(bounds[i], quadBounds[i]);
+                    bounds[i + 3] = Math.max(bounds[i + 3], quadBounds[i + 3]);
+                }
+                opaque = opaque && isOpaque(quad, texture);
+            }
+            // A cube with missing faces can be seen into
+            this.opaque = opaque && quads.size() == 6;
+        }
+
+        boolean sameTransform(CubeInfo other) {
+            return cube.pivot().equals(other.cube.pivot()) && cube.rotation().equals(other.cube.rotation());
+        }
+
+        float maxSide() {
+            return Math.max(bounds[3] - bounds[0], Math.max(bounds[4] - bounds[1], bounds[5] - bounds[2]));
+        }
+
+        float volume() {
+            return (bounds[3] - bounds[0]) * (bounds[4] - bounds[1]) * (bounds[5] - bounds[2]);
+        }
+
+        private static boolean isOpaque(GeoQuad quad, NativeImage texture) {
+            float minU = Float.MAX_VALUE;
+            float minV = Float.MAX_VALUE;
+            float maxU = -Float.MAX_VALUE;
+            float maxV = -Float.MAX_VALUE;
+            for (GeoVertex vertex : quad.vertices()) {
+                minU = Math.min(minU, vertex.texU());
+                minV = Math.min(minV, vertex.texV());
+                maxU = Math.max(maxU, vertex.texU());
+                maxV = Math.max(maxV, vertex.texV());
+            }
+
+            int width = texture.getWidth();
+            int height = texture.getHeight();
+            int fromX = Math.max(0, (int) Math.floor(minU * width + EPSILON));
+            int fromY = Math.max(0, (int) Math.floor(minV * height + EPSILON));
+            int toX = Math.min(width, (int) Math.ceil(maxU * width - EPSILON));
+            int toY = Math.min(height, (int) Math.ceil(maxV * height - EPSILON));
+            for (int y = fromY; y < toY; y++) {
+                for (int x = fromX; x < toX; x++) {
+                    if (FastColor.ABGR32.alpha(texture.getPixelRGBA(x, y)) != 255) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -24,7 +24,7 @@ public class FigureModel extends GeoModel<BoxBlockEntity> {
         if (figureType == FigureType.NONE) {
             return null;
         }
-        return new ResourceLocation(BlockPopsMod.MOD_ID, "textures/figure/box_figure_" + figureType.getSerializedName() + ".png");
+        return new ResourceLocation(BlockPopsMod.MOD_ID, figureType.getTexturePath());
     }
 
     @Override
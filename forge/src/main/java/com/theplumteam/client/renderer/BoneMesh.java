@@ -0,0 +1,174 @@
+package com.theplumteam.client.renderer;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import net.minecraft.world.phys.Vec3;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import software.bernie.geckolib.cache.object.GeoCube;
+import software.bernie.geckolib.cache.object.GeoQuad;
+import software.bernie.geckolib.cache.object.GeoVertex;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The cubes of one bone flattened into primitive arrays, so drawing the bone only multiplies
+ * each vertex by the bone's current matrix and streams it to the buffer. Cube rotations never
+ * change, so they are baked into the vertices up front.
+ *
+ * <p>Produces the same vertices as GeckoLib's {@code renderCube}, without the per-cube matrix
+ * pushes and the per-vertex vector allocations.</p>
+ */
+public final class BoneMesh {
+    // Keyed by the cube list itself: bones of a composite and the levels of a FigureLod each
+    // keep their list for as long as the model lives. Render thread only.
+    private static final Map<List<GeoCube>, BoneMesh> MESHES = new IdentityHashMap<>();
+
+    private static final int FLIP_X = 1;
+    private static final int FLIP_Y = 2;
+    private static final int FLIP_Z = 4;
+
+    private final int quadCount;
+    // Per vertex, four per quad
+    private final float[] x;
+    private final float[] y;
+    private final float[] z;
+    private final float[] u;
+    private final float[] v;
+    // Per quad
+    private final float[] normalX;
+    private final float[] normalY;
+    private final float[] normalZ;
+    private final byte[] flatFlips;
+
+    // Transformed positions of the current draw, reused between draws
+    private final float[] outX;
+    private final float[] outY;
+    private final float[] outZ;
+
+    BoneMesh(List<GeoCube> cubes) {
+        int quads = 0;
+        for (GeoCube cube : cubes) {
+            for (GeoQuad quad : cube.quads()) {
+                if (quad != null) {
+                    quads++;
+                }
+            }
+        }
+
+        quadCount = quads;
+        x = new float[quads * 4];
+        y = new float[quads * 4];
+        z = new float[quads * 4];
+        u = new float[quads * 4];
+        v = new float[quads * 4];
+        normalX = new float[quads];
+        normalY = new float[quads];
+        normalZ = new float[quads];
+        flatFlips = new byte[quads];
+        outX = new float[quads * 4];
+        outY = new float[quads * 4];
+        outZ = new float[quads * 4];
+
+        Matrix4f cubeMatrix = new Matrix4f();
+        Quaternionf cubeRotation = new Quaternionf();
+        Vector3f scratch = new Vector3f();
+        int quad = 0;
+        for (GeoCube cube : cubes) {
+            // Same transform as RenderUtils.translateToPivotPoint, rotateMatrixAroundCube and translateAwayFromPivotPoint
+            Vec3 pivot = cube.pivot();
+            Vec3 rotation = cube.rotation();
+            cubeRotation.identity()
+                .rotateZ((float) rotation.z())
+                .rotateY((float) rotation.y())
+                .rotateX((float) rotation.x());
+            cubeMatrix.identity()
+                .translate((float) pivot.x() / 16f, (float) pivot.y() / 16f, (float) pivot.z() / 16f)
+                .rotate(cubeRotation)
+                .translate((float) -pivot.x() / 16f, (float) -pivot.y() / 16f, (float) -pivot.z() / 16f);
+
+            // See RenderUtils.fixInvertedFlatCube
+            Vec3 size = cube.size();
+            int flips = (size.y() == 0 || size.z() == 0 ? FLIP_X : 0)
+                | (size.x() == 0 || size.z() == 0 ? FLIP_Y : 0)
+                | (size.x() == 0 || size.y() == 0 ? FLIP_Z : 0);
+
+            for (GeoQuad geoQuad : cube.quads()) {
+                if (geoQuad == null) {
+                    continue;
+                }
+                cubeRotation.transform(scratch.set(geoQuad.normal()));
+                normalX[quad] = scratch.x();
+                normalY[quad] = scratch.y();
+                normalZ[quad] = scratch.z();
+                flatFlips[quad] = (byte) flips;
+
+                int vertex = quad * 4;
+                for (GeoVertex geoVertex : geoQuad.vertices()) {
+                    cubeMatrix.transformPosition(scratch.set(geoVertex.position()));
+                    x[vertex] = scratch.x();
+                    y[vertex] = scratch.y();
+                    z[vertex] = scratch.z();
+                    u[vertex] = geoVertex.texU();
+                    v[vertex] = geoVertex.texV();
+                    vertex++;
+                }
+                quad++;
+            }
+        }
+    }
+
+    public static BoneMesh get(List<GeoCube> cubes) {
+        return MESHES.computeIfAbsent(cubes, BoneMesh::new);
+    }
+
+    public static void clearCache() {
+        MESHES.clear();
+    }
+
+    public void render(PoseStack.Pose pose, VertexConsumer buffer, int packedLight, int packedOverlay,
+                       float red, float green, float blue, float alpha) {
+        if (quadCount == 0) {
+            return;
+        }
+        Matrix4f matrix = pose.pose();
+        Matrix3f normal = pose.normal();
+        VertexTransform.get().transform(matrix, x, y, z, outX, outY, outZ, quadCount * 4);
+
+        for (int quad = 0; quad < quadCount; quad++) {
+            float nx = normal.m00() * normalX[quad] + normal.m10() * normalY[quad] + normal.m20() * normalZ[quad];
+            float ny = normal.m01() * normalX[quad] + normal.m11() * normalY[quad] + normal.m21() * normalZ[quad];
+            float nz = normal.m02() * normalX[quad] + normal.m12() * normalY[quad] + normal.m22() * normalZ[quad];
+            int flips = flatFlips[quad];
+            if (nx < 0 && (flips & FLIP_X) != 0) {
+                nx = -nx;
+            }
+            if (ny < 0 && (flips & FLIP_Y) != 0) {
+                ny = -ny;
+            }
+            if (nz < 0 && (flips & FLIP_Z) != 0) {
+                nz = -nz;
+            }
+
+            for (int vertex = quad * 4, end = vertex + 4; vertex < end; vertex++) {
+                buffer.vertex(outX[vertex], outY[vertex], outZ[vertex], red, green, blue, alpha,
+                              u[vertex], v[vertex], packedOverlay, packedLight, nx, ny, nz);
+            }
+        }
+    }
+
+    int getVertexCount() {
+        return quadCount * 4;
+    }
+
+    /**
+     * Transforms the mesh's positions without emitting them, used by {@link VertexTransformBenchmark}.
+     */
+    void transform(VertexTransform transform, Matrix4f matrix) {
+        transform.transform(matrix, x, y, z, outX, outY, outZ, quadCount * 4);
+    }
+}
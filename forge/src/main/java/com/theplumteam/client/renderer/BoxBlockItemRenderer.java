@@ -2,6 +2,7 @@ package com.theplumteam.client.renderer;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.theplumteam.block.BoxBlock;
+import com.theplumteam.block.PopBlockColor;
 import com.theplumteam.blockentity.BoxBlockEntity;
 import com.theplumteam.client.model.BoxBlockModel;
 import com.theplumteam.item.GeoBlockItem;
@@ -13,9 +14,13 @@ import net.minecraft.world.item.ItemDisplayContext;
 import net.minecraft.world.item.ItemStack;
 import software.bernie.geckolib.renderer.GeoBlockRenderer;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 public class BoxBlockItemRenderer extends BlockEntityWithoutLevelRenderer {
     private final GeoBlockRenderer<BoxBlockEntity> renderer;
-    private BoxBlockEntity renderEntity;
+    // One entity per color, so each keeps its animation state while stacks of several colors are drawn
+    private final Map<PopBlockColor, BoxBlockEntity> renderEntities = new EnumMap<>(PopBlockColor.class);
 
     public BoxBlockItemRenderer() {
         super(Minecraft.getInstance().getBlockEntityRenderDispatcher(), Minecraft.getInstance().getEntityModels());
@@ -27,10 +32,10 @@ public class BoxBlockItemRenderer extends BlockEntityWithoutLevelRenderer {
                             MultiBufferSource bufferSource, int packedLight, int packedOverlay) {
         if (stack.getItem() instanceof GeoBlockItem geoBlockItem) {
             BoxBlock boxBlock = geoBlockItem.getBoxBlock();
+            PopBlockColor color = GeoBlockItem.getColor(stack);
 
-            if (renderEntity == null || !renderEntity.getBlockState().is(boxBlock)) {
-                renderEntity = new BoxBlockEntity(BlockPos.ZERO, boxBlock.defaultBlockState());
-            }
+            BoxBlockEntity renderEntity = renderEntities.computeIfAbsent(color,
+                key -> new BoxBlockEntity(BlockPos.ZERO, boxBlock.defaultBlockState().setValue(BoxBlock.COLOR, key)));
 
             // Apply rotation for item rendering
             poseStack.pushPose();
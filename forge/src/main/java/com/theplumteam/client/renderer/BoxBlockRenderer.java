@@ -2,65 +2,157 @@ package com.theplumteam.client.renderer;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
-import com.theplumteam.block.BoxBlock;
 import com.theplumteam.blockentity.BoxBlockEntity;
-import com.theplumteam.client.model.BoxBlockModel;
+import com.theplumteam.client.model.CompositeBoxModel;
+import com.theplumteam.client.model.FigureLod;
 import com.theplumteam.client.model.FigureModel;
-import com.theplumteam.figure.FigureType;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.LevelRenderer;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderType;
-import net.minecraft.core.Direction;
-import net.minecraft.resources.ResourceLocation;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import software.bernie.geckolib.cache.object.BakedGeoModel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+import org.jetbrains.annotations.Nullable;
+import software.bernie.geckolib.cache.object.GeoBone;
+import software.bernie.geckolib.cache.object.GeoCube;
 import software.bernie.geckolib.renderer.GeoBlockRenderer;
 
+import java.util.List;
+
 public class BoxBlockRenderer extends GeoBlockRenderer<BoxBlockEntity> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(BoxBlockRenderer.class);
-    private final GeoBlockRenderer<BoxBlockEntity> figureRenderer;
-    private boolean renderingFigure = false;
+    // Only used to resolve the figure texture and render type, the figure geometry is part of the composite model
+    private final FigureModel figureModel = new FigureModel();
+    // Whether the box being rendered is within the render budget, see RenderBudget
+    private boolean fullDetail = true;
+    private double cameraDistance;
+    // Simplified figure geometry for the bones being rendered, null while drawing as authored
+    @Nullable
+    private FigureLod figureLod;
+    private int figureLodLevel;
 
     public BoxBlockRenderer() {
-        super(new BoxBlockModel());
-        // Create a separate renderer instance for the figure (like Lineages does with the book)
-        this.figureRenderer = new GeoBlockRenderer<>(new FigureModel()) {
-            @Override
-            protected void rotateBlock(Direction facing, PoseStack poseStack) {
-                // Don't apply block rotation to the figure - we want it to always face the same direction
-                // or we can apply a custom rotation here
+        super(new CompositeBoxModel());
+    }
+
+    @Override
+    public void render(BoxBlockEntity animatable, float partialTick, PoseStack poseStack,
+                       MultiBufferSource bufferSource, int packedLight, int packedOverlay) {
+        BoxCluster cluster = BoxClusters.get(animatable);
+        if (cluster != null && !cluster.isLeader(animatable)) {
+            // Drawn by the cluster's leader
+            animatable.markRendered();
+            return;
+        }
+
+        // Boxes outside the render budget are drawn box-only in a static pose. A cluster
+        // counts as one entry in the budget, at the distance of its nearest point.
+        Vec3 camera = Minecraft.getInstance().gameRenderer.getMainCamera().getPosition();
+        double distanceSqr = cluster != null ? cluster.distanceToSqr(camera)
+            : Vec3.atCenterOf(animatable.getBlockPos()).distanceToSqr(camera);
+        fullDetail = RenderBudget.allowFullRender(distanceSqr);
+        CompositeBoxModel model = (CompositeBoxModel) getGeoModel();
+        model.setStaticPose(!fullDetail);
+
+        renderBox(animatable, camera, partialTick, poseStack, bufferSource, packedLight, packedOverlay);
+        if (cluster == null) {
+            return;
+        }
+
+        // The rest of the cluster reuses the leader's pose, so the whole cluster animates in step
+        // and the animation is only evaluated once
+        Level level = animatable.getLevel();
+        BlockPos leaderPos = animatable.getBlockPos();
+        model.setSharedPose(true);
+        try {
+            for (BoxBlockEntity member : cluster.getMembers()) {
+                if (member == animatable || member.isRemoved()) {
+                    continue;
+                }
+                BlockPos pos = member.getBlockPos();
+                poseStack.pushPose();
+                poseStack.translate(pos.getX() - leaderPos.getX(), pos.getY() - leaderPos.getY(), pos.getZ() - leaderPos.getZ());
+                int light = level != null ? LevelRenderer.getLightColor(level, pos) : packedLight;
+                renderBox(member, camera, partialTick, poseStack, bufferSource, light, packedOverlay);
+                poseStack.popPose();
             }
-        };
+        } finally {
+            model.setSharedPose(false);
+        }
+    }
+
+    private void renderBox(BoxBlockEntity box, Vec3 camera, float partialTick, PoseStack poseStack,
+                           MultiBufferSource bufferSource, int packedLight, int packedOverlay) {
+        // Keep the animation state of visible boxes alive, see BoxBlockEntity#tick
+        box.markRendered();
+        cameraDistance = Math.sqrt(Vec3.atCenterOf(box.getBlockPos()).distanceToSqr(camera));
+        super.render(box, partialTick, poseStack, bufferSource, packedLight, packedOverlay);
     }
 
     @Override
-    public void actuallyRender(PoseStack poseStack, BoxBlockEntity animatable, BakedGeoModel model,
-                              RenderType renderType, MultiBufferSource bufferSource, VertexConsumer buffer,
-                              boolean isReRender, float partialTick, int packedLight, int packedOverlay,
-                              float red, float green, float blue, float alpha) {
-        // First, render the box model (the main model)
-        super.actuallyRender(poseStack, animatable, model, renderType, bufferSource, buffer,
-                           isReRender, partialTick, packedLight, packedOverlay, red, green, blue, alpha);
-
-        // Then, render the figure model if one exists
-        FigureType figureType = animatable.getFigureType();
-        if (figureType.hasFigure()) {
-            poseStack.pushPose();
-
-            // Apply figure offset and scale
-            poseStack.translate(animatable.getFigureOffsetX(),
-                              animatable.getFigureOffsetY(),
-                              animatable.getFigureOffsetZ());
-            poseStack.scale((float) animatable.getFigureScale(),
-                          (float) animatable.getFigureScale(),
-                          (float) animatable.getFigureScale());
-
-            // Render the figure using separate renderer (like Lineages does with the book)
-            // Note: The figure will inherit the block's rotation from GeckoLib's automatic rotation
-            figureRenderer.render(animatable, partialTick, poseStack, bufferSource,
-                                packedLight, packedOverlay);
-
-            poseStack.popPose();
+    public boolean shouldRender(BoxBlockEntity animatable, Vec3 cameraPos) {
+        // A leader stays drawn while any part of its cluster is in range
+        BoxCluster cluster = BoxClusters.get(animatable);
+        if (cluster != null && cluster.isLeader(animatable)) {
+            double viewDistance = getViewDistance();
+            return cluster.distanceToSqr(cameraPos) < viewDistance * viewDistance;
         }
+        return super.shouldRender(animatable, cameraPos);
+    }
+
+    @Override
+    public void renderRecursively(PoseStack poseStack, BoxBlockEntity animatable, GeoBone bone, RenderType renderType,
+                                  MultiBufferSource bufferSource, VertexConsumer buffer, boolean isReRender,
+                                  float partialTick, int packedLight, int packedOverlay,
+                                  float red, float green, float blue, float alpha) {
+        if (!CompositeBoxModel.FIGURE_MOUNT.equals(bone.getName())) {
+            super.renderRecursively(poseStack, animatable, bone, renderType, bufferSource, buffer,
+                                    isReRender, partialTick, packedLight, packedOverlay, red, green, blue, alpha);
+            return;
+        }
+        if (!fullDetail) {
+            return;
+        }
+
+        poseStack.pushPose();
+
+        // Apply figure offset and scale
+        float scale = (float) animatable.getFigureScale();
+        poseStack.translate(animatable.getFigureOffsetX(),
+                          animatable.getFigureOffsetY(),
+                          animatable.getFigureOffsetZ());
+        poseStack.scale(scale, scale, scale);
+        // Same centering GeoBlockRenderer applies to a model of its own, the figure offsets were tuned with it
+        poseStack.translate(0.5, 0.01, 0.5);
+
+        // Distant figures use simplified meshes, picked by their size on screen
+        figureLod = CompositeBoxModel.getLod(animatable.getFigureType());
+        figureLodLevel = figureLod != null ? FigureLod.selectLevel(figureLod.getHeight() * scale, cameraDistance) : 0;
+
+        // The figure inherits the block's rotation, and only switches texture
+        RenderType figureRenderType = figureModel.getRenderType(animatable, figureModel.getTextureResource(animatable));
+        VertexConsumer figureBuffer = bufferSource.getBuffer(figureRenderType);
+        for (GeoBone child : bone.getChildBones()) {
+            super.renderRecursively(poseStack, animatable, child, figureRenderType, bufferSource, figureBuffer,
+                                    isReRender, partialTick, packedLight, packedOverlay, red, green, blue, alpha);
+        }
+
+        figureLod = null;
+        poseStack.popPose();
+    }
+
+    @Override
+    public void renderCubesOfBone(PoseStack poseStack, GeoBone bone, VertexConsumer buffer, int packedLight,
+                                  int packedOverlay, float red, float green, float blue, float alpha) {
+        if (bone.isHidden()) {
+            return;
+        }
+        List<GeoCube> cubes = figureLod != null ? figureLod.getCubes(bone.getName(), figureLodLevel) : null;
+        if (cubes == null) {
+            cubes = bone.getCubes();
+        }
+
+        // Stream the bone's cached vertices instead of rebuilding every cube, see BoneMesh
+        BoneMesh.get(cubes).render(poseStack.last(), buffer, packedLight, packedOverlay, red, green, blue, alpha);
     }
 }
@@ -0,0 +1,55 @@
+package com.theplumteam.client.renderer;
+
+import com.theplumteam.blockentity.BoxBlockEntity;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.List;
+
+/**
+ * Adjacent boxes in one chunk section that face the same way and show the same figure. The
+ * leader draws the whole cluster in one renderer pass with a single animation pose, and stands
+ * in for it in frustum culling. See {@link BoxClusters}.
+ */
+public final class BoxCluster {
+    private final BoxBlockEntity leader;
+    private final List<BoxBlockEntity> members;
+    private final AABB bounds;
+
+    BoxCluster(List<BoxBlockEntity> members) {
+        BoxBlockEntity leader = members.get(0);
+        AABB bounds = leader.getBoxRenderBounds();
+        for (BoxBlockEntity member : members) {
+            if (member.getBlockPos().asLong() < leader.getBlockPos().asLong()) {
+                leader = member;
+            }
+            bounds = bounds.minmax(member.getBoxRenderBounds());
+        }
+        this.leader = leader;
+        this.members = List.copyOf(members);
+        this.bounds = bounds;
+    }
+
+    public boolean isLeader(BoxBlockEntity box) {
+        return box == leader;
+    }
+
+    public BoxBlockEntity getLeader() {
+        return leader;
+    }
+
+    public List<BoxBlockEntity> getMembers() {
+        return members;
+    }
+
+    public AABB getBounds() {
+        return bounds;
+    }
+
+    public double distanceToSqr(Vec3 point) {
+        double dx = Math.max(0, Math.max(bounds.minX - point.x, point.x - bounds.maxX));
+        double dy = Math.max(0, Math.max(bounds.minY - point.y, point.y - bounds.maxY));
+        double dz = Math.max(0, Math.max(bounds.minZ - point.z, point.z - bounds.maxZ));
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
@@ -0,0 +1,186 @@
+package com.theplumteam.client.renderer;
+
+import com.theplumteam.BlockPopsMod;
+import com.theplumteam.block.BoxBlock;
+import com.theplumteam.blockentity.BoxBlockEntity;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups the client's boxes into {@link BoxCluster}s so shelves and walls of boxes are culled
+ * and drawn as one.
+ *
+ * <p>Clusters never cross chunk section borders: block entities are only drawn for visible
+ * sections, so a leader in a hidden section would take its whole cluster with it. Boxes that
+ * are added, removed or changed only mark their section dirty, and each dirty section is
+ * rebuilt once at the start of the next frame. A chunk arriving with many boxes therefore
+ * costs one pass over its sections rather than a flood fill per box.</p>
+ */
+@Mod.EventBusSubscriber(modid = BlockPopsMod.MOD_ID, value = Dist.CLIENT)
+public final class BoxClusters {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // Client thread only, boxes in a cluster of their own aren't stored
+    private static final Long2ObjectMap<BoxCluster> CLUSTERS = new Long2ObjectOpenHashMap<>();
+    // Sections to rebuild at the start of the next frame
+    private static final LongSet DIRTY_SECTIONS = new LongOpenHashSet();
+    @Nullable
+    private static Level clusterLevel;
+
+    private BoxClusters() {
+    }
+
+    @Nullable
+    public static BoxCluster get(BoxBlockEntity box) {
+        return box.getLevel() == clusterLevel ? CLUSTERS.get(box.getBlockPos().asLong()) : null;
+    }
+
+    /**
+     * Marks the clusters around a box that was loaded or changed its facing or figure for rebuilding.
+     */
+    public static void update(BoxBlockEntity box) {
+        Level level = box.getLevel();
+        if (level == null || !level.isClientSide) {
+            return;
+        }
+        if (level != clusterLevel) {
+            CLUSTERS.clear();
+            DIRTY_SECTIONS.clear();
+            clusterLevel = level;
+        }
+        DIRTY_SECTIONS.add(SectionPos.blockToSection(box.getBlockPos().asLong()));
+    }
+
+    /**
+     * Takes a box that is being unloaded or removed out of its cluster. The rest of the cluster
+     * is split up, if needed, with the next rebuild.
+     */
+    public static void remove(BoxBlockEntity box) {
+        Level level = box.getLevel();
+        if (level == null || level != clusterLevel) {
+            return;
+        }
+        long pos = box.getBlockPos().asLong();
+        if (CLUSTERS.remove(pos) != null) {
+            DIRTY_SECTIONS.add(SectionPos.blockToSection(pos));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onRenderTick(TickEvent.RenderTickEvent event) {
+        if (event.phase != TickEvent.Phase.START || DIRTY_SECTIONS.isEmpty() || clusterLevel == null) {
+            return;
+        }
+        LongIterator iterator = DIRTY_SECTIONS.iterator();
+        while (iterator.hasNext()) {
+            rebuildSection(clusterLevel, iterator.nextLong());
+        }
+        DIRTY_SECTIONS.clear();
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        LevelAccessor level = event.getLevel();
+        if (level == clusterLevel) {
+            CLUSTERS.clear();
+            DIRTY_SECTIONS.clear();
+            clusterLevel = null;
+        }
+    }
+
+    /**
+     * Regroups every box of a section, covering merges as well as splits.
+     */
+    private static void rebuildSection(Level level, long section) {
+        LevelChunk chunk = level.getChunkSource().getChunkNow(SectionPos.x(section), SectionPos.z(section));
+        if (chunk == null) {
+            // Unloaded boxes have already taken themselves out
+            return;
+        }
+
+        List<BoxBlockEntity> boxes = new ArrayList<>();
+        for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+            if (blockEntity instanceof BoxBlockEntity box && !box.isRemoved()
+                && SectionPos.blockToSection(box.getBlockPos().asLong()) == section) {
+                boxes.add(box);
+                CLUSTERS.remove(box.getBlockPos().asLong());
+            }
+        }
+
+        LongSet visited = new LongOpenHashSet();
+        for (BoxBlockEntity box : boxes) {
+            fill(level, box, section, visited);
+        }
+    }
+
+    private static void fill(Level level, BoxBlockEntity first, long section, LongSet visited) {
+        if (!visited.add(first.getBlockPos().asLong())) {
+            return;
+        }
+
+        List<BoxBlockEntity> members = new ArrayList<>();
+        ArrayDeque<BoxBlockEntity> queue = new ArrayDeque<>();
+        queue.add(first);
+        while (!queue.isEmpty()) {
+            BoxBlockEntity box = queue.poll();
+            members.add(box);
+            for (Direction direction : DIRECTIONS) {
+                BlockPos neighbourPos = box.getBlockPos().relative(direction);
+                if (SectionPos.blockToSection(neighbourPos.asLong()) != section || visited.contains(neighbourPos.asLong())) {
+                    continue;
+                }
+                BoxBlockEntity neighbour = getBox(level, neighbourPos);
+                if (neighbour != null && canJoin(first, neighbour)) {
+                    visited.add(neighbourPos.asLong());
+                    queue.add(neighbour);
+                }
+            }
+        }
+
+        if (members.size() == 1) {
+            return;
+        }
+        BoxCluster cluster = new BoxCluster(members);
+        for (BoxBlockEntity member : members) {
+            CLUSTERS.put(member.getBlockPos().asLong(), cluster);
+        }
+    }
+
+    private static boolean canJoin(BoxBlockEntity a, BoxBlockEntity b) {
+        // Same facing and figure means the same composite model and pose, color only changes the texture.
+        // Boxes still waiting for their figure are drawn with the plain box model.
+        return a.getBlockState().getValue(BoxBlock.FACING) == b.getBlockState().getValue(BoxBlock.FACING)
+            && a.getFigureType() == b.getFigureType()
+            && a.isFigurePending() == b.isFigurePending();
+    }
+
+    @Nullable
+    private static BoxBlockEntity getBox(Level level, BlockPos pos) {
+        if (!level.isLoaded(pos)) {
+            return null;
+        }
+        // CHECK rather than the default, which would create missing block entities mid-update
+        BlockEntity blockEntity = level.getChunkAt(pos).getBlockEntity(pos, LevelChunk.EntityCreationType.CHECK);
+        return blockEntity instanceof BoxBlockEntity box && !box.isRemoved() ? box : null;
+    }
+}
@@ -0,0 +1,133 @@
+package com.theplumteam.client.renderer;
+
+import com.theplumteam.BlockPopsMod;
+import com.theplumteam.config.BlockPopsConfig;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.Options;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.CustomizeGuiOverlayEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Arrays;
+
+/**
+ * Caps how many boxes get full animation and figure rendering per frame, adjusting the cap
+ * from recent frame times to hold the configured target FPS.
+ *
+ * <p>Block entity renderers run in no particular order, so the nearest boxes are picked using
+ * the previous frame: every render records its distance, and at the start of the next frame
+ * the distance of the budget-th nearest box becomes the cutoff.</p>
+ */
+@Mod.EventBusSubscriber(modid = BlockPopsMod.MOD_ID, value = Dist.CLIENT)
+public final class RenderBudget {
+    // Weight of the newest frame in the smoothed frame time
+    private static final double SMOOTHING = 0.1;
+
+    private static float[] distances = new float[256];
+    private static int boxesThisFrame;
+    private static int fullThisFrame;
+
+    private static int budget = Integer.MAX_VALUE;
+    private static float cutoffDistanceSqr = Float.MAX_VALUE;
+    private static double smoothedFrameNanos;
+    private static long lastFrameStart;
+
+    // Shown in the debug overlay
+    private static int lastBoxes;
+    private static int lastFull;
+
+    private RenderBudget() {
+    }
+
+    /**
+     * Records a box about to be rendered and decides whether it gets full rendering.
+     */
+    public static boolean allowFullRender(double distanceSqr) {
+        if (boxesThisFrame == distances.length) {
+            distances = Arrays.copyOf(distances, distances.length * 2);
+        }
+        distances[boxesThisFrame++] = (float) distanceSqr;
+
+        if (!BlockPopsConfig.CLIENT.renderBudgetEnabled.get() || distanceSqr <= cutoffDistanceSqr) {
+            fullThisFrame++;
+            return true;
+        }
+        return false;
+    }
+
+    @SubscribeEvent
+    public static void onRenderTick(TickEvent.RenderTickEvent event) {
+        if (event.phase != TickEvent.Phase.START) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (lastFrameStart != 0) {
+            long frameNanos = now - lastFrameStart;
+            smoothedFrameNanos = smoothedFrameNanos == 0 ? frameNanos
+                : smoothedFrameNanos + (frameNanos - smoothedFrameNanos) * SMOOTHING;
+        }
+        lastFrameStart = now;
+
+        lastBoxes = boxesThisFrame;
+        lastFull = fullThisFrame;
+        adjustBudget();
+        updateCutoff();
+
+        boxesThisFrame = 0;
+        fullThisFrame = 0;
+    }
+
+    private static void adjustBudget() {
+        int min = BlockPopsConfig.CLIENT.renderBudgetMinBoxes.get();
+        int max = Math.max(min, BlockPopsConfig.CLIENT.renderBudgetMaxBoxes.get());
+        double targetNanos = 1_000_000_000.0 / getTargetFps();
+
+        budget = Math.min(budget, max);
+        if (smoothedFrameNanos > targetNanos * 1.05) {
+            budget = Math.max(min, (int) (budget * 0.9));
+        } else if (smoothedFrameNanos < targetNanos * 0.9 && lastBoxes > budget) {
+            // Only grow while boxes are actually being held back
+            budget = Math.min(max, budget + Math.max(1, budget / 20));
+        }
+    }
+
+    private static int getTargetFps() {
+        Minecraft mc = Minecraft.getInstance();
+        int targetFps = BlockPopsConfig.CLIENT.renderBudgetTargetFps.get();
+        int framerateLimit = mc.options.framerateLimit().get();
+        if (framerateLimit < Options.UNLIMITED_FRAMERATE_CUTOFF) {
+            targetFps = Math.min(targetFps, framerateLimit);
+        }
+        if (mc.options.enableVsync().get()) {
+            int refreshRate = mc.getWindow().getRefreshRate();
+            if (refreshRate > 0) {
+                targetFps = Math.min(targetFps, refreshRate);
+            }
+        }
+        return Math.max(1, targetFps);
+    }
+
+    private static void updateCutoff() {
+        if (boxesThisFrame <= budget) {
+            cutoffDistanceSqr = Float.MAX_VALUE;
+            return;
+        }
+        float[] sorted = Arrays.copyOf(distances, boxesThisFrame);
+        Arrays.sort(sorted);
+        cutoffDistanceSqr = budget == 0 ? -1 : sorted[budget - 1];
+    }
+
+    @SubscribeEvent
+    public static void onDebugText(CustomizeGuiOverlayEvent.DebugText event) {
+        if (!BlockPopsConfig.CLIENT.renderBudgetEnabled.get()) {
+            return;
+        }
+        String cutoff = cutoffDistanceSqr == Float.MAX_VALUE ? "none" : String.format("%.1fm", Math.sqrt(Math.max(0, cutoffDistanceSqr)));
+        event.getLeft().add(String.format("BlockPops budget: %d full / %d boxes (cap %s, cutoff %s, frame %.1fms)",
+            lastFull, lastBoxes, budget == Integer.MAX_VALUE ? "none" : String.valueOf(budget), cutoff,
+            smoothedFrameNanos / 1_000_000.0));
+    }
+}
@@ -0,0 +1,24 @@
+package com.theplumteam.client.renderer;
+
+import org.joml.Matrix4f;
+
+final class ScalarVertexTransform extends VertexTransform {
+    @Override
+    public void transform(Matrix4f matrix, float[] x, float[] y, float[] z,
+                          float[] outX, float[] outY, float[] outZ, int count) {
+        float m00 = matrix.m00(), m01 = matrix.m01(), m02 = matrix.m02();
+        float m10 = matrix.m10(), m11 = matrix.m11(), m12 = matrix.m12();
+        float m20 = matrix.m20(), m21 = matrix.m21(), m22 = matrix.m22();
+        float m30 = matrix.m30(), m31 = matrix.m31(), m32 = matrix.m32();
+        for (int i = 0; i < count; i++) {
+            outX[i] = m00 * x[i] + m10 * y[i] + m20 * z[i] + m30;
+            outY[i] = m01 * x[i] + m11 * y[i] + m21 * z[i] + m31;
+            outZ[i] = m02 * x[i] + m12 * y[i] + m22 * z[i] + m32;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,54 @@
+package com.theplumteam.client.renderer;
+
+import com.theplumteam.config.BlockPopsConfig;
+import org.joml.Matrix4f;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transforms batches of cached vertex positions by a bone matrix, the inner loop of drawing a
+ * {@link BoneMesh}. A SIMD implementation using the incubating Vector API is used when the JVM
+ * was started with {@code --add-modules jdk.incubator.vector}, the plain scalar loop otherwise.
+ */
+public abstract class VertexTransform {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VertexTransform.class);
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    public static final VertexTransform SCALAR = new ScalarVertexTransform();
+    // Null when the Vector API isn't available
+    public static final VertexTransform VECTOR = detectVector();
+
+    /**
+     * Transforms {@code count} positions given as separate x, y and z arrays into the output arrays.
+     */
+    public abstract void transform(Matrix4f matrix, float[] x, float[] y, float[] z,
+                                   float[] outX, float[] outY, float[] outZ, int count);
+
+    public abstract String getName();
+
+    /**
+     * The implementation to render with, as allowed by the client config.
+     */
+    public static VertexTransform get() {
+        return VECTOR != null && BlockPopsConfig.CLIENT.vectorTransforms.get() ? VECTOR : SCALAR;
+    }
+
+    private static VertexTransform detectVector() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            LOGGER.info("{} is not available, using scalar vertex transforms", VECTOR_MODULE);
+            return null;
+        }
+        try {
+            // Loaded by name so the scalar path never links against the incubator classes. It is
+            // built from the separate vector source set, the only code compiled against them.
+            VertexTransform transform = (VertexTransform) Class.forName("com.theplumteam.client.renderer.VectorVertexTransform")
+                .getDeclaredConstructor()
+                .newInstance();
+            LOGGER.info("Using {} vertex transforms", transform.getName());
+            return transform;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            LOGGER.warn("Failed to set up vectorized vertex transforms, using scalar ones", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.theplumteam.client.renderer;
+
+import com.theplumteam.BlockPopsMod;
+import net.minecraft.resources.ResourceLocation;
+import org.joml.Matrix4f;
+import software.bernie.geckolib.cache.GeckoLibCache;
+import software.bernie.geckolib.cache.object.BakedGeoModel;
+import software.bernie.geckolib.cache.object.GeoBone;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Times the scalar and vectorized {@link VertexTransform} paths on the meshes of every loaded
+ * BlockPops model, run through {@code /blockpopsclient benchmark}.
+ */
+public final class VertexTransformBenchmark {
+    private static final int WARMUP_ROUNDS = 2_000;
+
+    private VertexTransformBenchmark() {
+    }
+
+    public record Result(String name, int vertices, long rounds, double nanosPerVertex) {
+    }
+
+    public static List<Result> run(int rounds) {
+        List<BoneMesh> meshes = new ArrayList<>();
+        int vertices = 0;
+        for (Map.Entry<ResourceLocation, BakedGeoModel> entry : GeckoLibCache.getBakedModels().entrySet()) {
+            if (entry.getKey().getNamespace().equals(BlockPopsMod.MOD_ID)) {
+                for (GeoBone bone : entry.getValue().topLevelBones()) {
+                    vertices += collect(bone, meshes);
+                }
+            }
+        }
+
+        List<Result> results = new ArrayList<>(2);
+        results.add(time(VertexTransform.SCALAR, meshes, vertices, rounds));
+        if (VertexTransform.VECTOR != null) {
+            results.add(time(VertexTransform.VECTOR, meshes, vertices, rounds));
+        }
+        return results;
+    }
+
+    private static int collect(GeoBone bone, List<BoneMesh> meshes) {
+        // Fresh meshes rather than the render cache, so the benchmark never touches live data
+        BoneMesh mesh = new BoneMesh(bone.getCubes());
+        int vertices = mesh.getVertexCount();
+        if (vertices > 0) {
+            meshes.add(mesh);
+        }
+        for (GeoBone child : bone.getChildBones()) {
+            vertices += collect(child, meshes);
+        }
+        return vertices;
+    }
+
+    private static Result time(VertexTransform transform, List<BoneMesh> meshes, int vertices, int rounds) {
+        // A typical rendering matrix: rotated, scaled and translated
+        Matrix4f matrix = new Matrix4f()
+            .translate(12.5f, 64.0f, -3.25f)
+            .rotateY((float) Math.toRadians(90))
+            .rotateX((float) Math.toRadians(5))
+            .scale(0.75f);
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            transformAll(transform, meshes, matrix);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            transformAll(transform, meshes, matrix);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double nanosPerVertex = vertices == 0 ? 0 : (double) elapsed / ((long) vertices * rounds);
+        return new Result(transform.getName(), vertices, rounds, nanosPerVertex);
+    }
+
+    private static void transformAll(VertexTransform transform, List<BoneMesh> meshes, Matrix4f matrix) {
+        for (BoneMesh mesh : meshes) {
+            mesh.transform(transform, matrix);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.theplumteam.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.theplumteam.BlockPopsMod;
+import com.theplumteam.client.renderer.VertexTransform;
+import com.theplumteam.client.renderer.VertexTransformBenchmark;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RegisterClientCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.List;
+
+/**
+ * Client-side diagnostics, under their own root so they don't shadow {@code /blockpops} on servers.
+ */
+@Mod.EventBusSubscriber(modid = BlockPopsMod.MOD_ID, value = Dist.CLIENT)
+public final class BlockPopsClientCommands {
+    private static final int DEFAULT_BENCHMARK_ROUNDS = 20_000;
+
+    private BlockPopsClientCommands() {
+    }
+
+    @SubscribeEvent
+    public static void onRegisterClientCommands(RegisterClientCommandsEvent event) {
+        register(event.getDispatcher());
+    }
+
+    private static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal(BlockPopsMod.MOD_ID + "client")
+            .then(Commands.literal("benchmark")
+                .executes(context -> benchmark(context, DEFAULT_BENCHMARK_ROUNDS))
+                .then(Commands.argument("rounds", IntegerArgumentType.integer(1, 1_000_000))
+                    .executes(context -> benchmark(context, IntegerArgumentType.getInteger(context, "rounds"))))));
+    }
+
+    private static int benchmark(CommandContext<CommandSourceStack> context, int rounds) {
+        CommandSourceStack source = context.getSource();
+        List<VertexTransformBenchmark.Result> results = VertexTransformBenchmark.run(rounds);
+        for (VertexTransformBenchmark.Result result : results) {
+            source.sendSuccess(() -> Component.literal(String.format("%s: %.3f ns/vertex (%d vertices x %d rounds)",
+                result.name(), result.nanosPerVertex(), result.vertices(), result.rounds())), false);
+        }
+        if (VertexTransform.VECTOR == null) {
+            source.sendSuccess(() -> Component.literal(
+                "Vectorized path unavailable, start the game with --add-modules jdk.incubator.vector to compare"), false);
+        } else {
+            source.sendSuccess(() -> Component.literal("Rendering with " + VertexTransform.get().getName()), false);
+        }
+        return results.size();
+    }
+}
@@ -0,0 +1,265 @@
+package com.theplumteam.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.Dynamic2CommandExceptionType;
+import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import com.theplumteam.BlockPopsMod;
+import com.theplumteam.block.PopBlockColor;
+import com.theplumteam.blockentity.BoxBlockEntity;
+import com.theplumteam.catalog.BoxCatalog;
+import com.theplumteam.catalog.BoxCatalogs;
+import com.theplumteam.config.BlockPopsConfig;
+import com.theplumteam.figure.FigureType;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.SharedSuggestionProvider;
+import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+@Mod.EventBusSubscriber(modid = BlockPopsMod.MOD_ID)
+public final class BlockPopsCommands {
+    private static final DynamicCommandExceptionType UNKNOWN_FIGURE = new DynamicCommandExceptionType(
+        name -> Component.literal("Unknown figure type: " + name));
+    private static final DynamicCommandExceptionType UNKNOWN_COLOR = new DynamicCommandExceptionType(
+        name -> Component.literal("Unknown color: " + name));
+    private static final SimpleCommandExceptionType NO_CATALOG = new SimpleCommandExceptionType(
+        Component.literal("This level has no box catalog"));
+    private static final SimpleCommandExceptionType REBUILD_RUNNING = new SimpleCommandExceptionType(
+        Component.literal("The box catalog is already being rebuilt"));
+    private static final SimpleCommandExceptionType JOB_RUNNING = new SimpleCommandExceptionType(
+        Component.literal("A region edit is already running, use /blockpops region cancel first"));
+    private static final Dynamic2CommandExceptionType REGION_TOO_LARGE = new Dynamic2CommandExceptionType(
+        (chunks, max) -> Component.literal("Region covers " + chunks + " chunks, at most " + max + " are allowed"));
+    private static final SimpleCommandExceptionType NO_JOB = new SimpleCommandExceptionType(
+        Component.literal("No region edit is running"));
+
+    // Positions listed by /blockpops catalog find
+    private static final int MAX_LISTED_BOXES = 10;
+
+    private BlockPopsCommands() {
+    }
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        register(event.getDispatcher());
+    }
+
+    private static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal(BlockPopsMod.MOD_ID)
+            .requires(source -> source.hasPermission(2))
+            .then(Commands.literal("region")
+                .then(Commands.argument("from", BlockPosArgument.blockPos())
+                    .then(Commands.argument("to", BlockPosArgument.blockPos())
+                        .then(figureTypeEdit())
+                        .then(offsetEdit())
+                        .then(scaleEdit())))
+                .then(Commands.literal("status")
+                    .executes(BlockPopsCommands::status))
+                .then(Commands.literal("cancel")
+                    .executes(BlockPopsCommands::cancel)))
+            .then(Commands.literal("catalog")
+                .then(Commands.literal("count")
+                    .executes(context -> countBoxes(context, entry -> true))
+                    .then(Commands.literal("figure")
+                        .then(figureArgument()
+                            .executes(context -> {
+                                FigureType figureType = getFigureType(context);
+                                return countBoxes(context, entry -> entry.figureType() == figureType);
+                            })))
+                    .then(Commands.literal("color")
+                        .then(colorArgument()
+                            .executes(context -> {
+                                PopBlockColor color = getColor(context);
+                                return countBoxes(context, entry -> entry.color() == color);
+                            }))))
+                .then(Commands.literal("find")
+                    .then(Commands.literal("figure")
+                        .then(figureArgument()
+                            .executes(context -> {
+                                FigureType figureType = getFigureType(context);
+                                return findBoxes(context, entry -> entry.figureType() == figureType);
+                            })))
+                    .then(Commands.literal("color")
+                        .then(colorArgument()
+                            .executes(context -> {
+                                PopBlockColor color = getColor(context);
+                                return findBoxes(context, entry -> entry.color() == color);
+                            }))))
+                .then(Commands.literal("rebuild")
+                    .executes(BlockPopsCommands::rebuildCatalog))));
+    }
+
+    private static RequiredArgumentBuilder<CommandSourceStack, String> figureArgument() {
+        return Commands.argument("figure", StringArgumentType.word())
+            .suggests((context, builder) -> SharedSuggestionProvider.suggest(
+                Arrays.stream(FigureType.values()).map(FigureType::getSerializedName), builder));
+    }
+
+    private static RequiredArgumentBuilder<CommandSourceStack, String> colorArgument() {
+        return Commands.argument("color", StringArgumentType.word())
+            .suggests((context, builder) -> SharedSuggestionProvider.suggest(
+                Arrays.stream(PopBlockColor.values()).map(PopBlockColor::getSerializedName), builder));
+    }
+
+    private static ArgumentBuilder<CommandSourceStack, ?> figureTypeEdit() {
+        return Commands.literal("type")
+            .then(figureArgument()
+                .executes(context -> {
+                    FigureType figureType = getFigureType(context);
+                    return startEdit(context, edit -> edit.figureType(figureType));
+                }));
+    }
+
+    private static ArgumentBuilder<CommandSourceStack, ?> offsetEdit() {
+        // Same ranges as the sliders in FigurePositionScreen
+        return Commands.literal("offset")
+            .then(Commands.argument("x", DoubleArgumentType.doubleArg(-1.0, 1.0))
+                .then(Commands.argument("y", DoubleArgumentType.doubleArg(-1.0, 1.0))
+                    .then(Commands.argument("z", DoubleArgumentType.doubleArg(-1.0, 1.0))
+                        .executes(context -> {
+                            double x = DoubleArgumentType.getDouble(context, "x");
+                            double y = DoubleArgumentType.getDouble(context, "y");
+                            double z = DoubleArgumentType.getDouble(context, "z");
+                            return startEdit(context, edit -> edit.offset(x, y, z));
+                        }))));
+    }
+
+    private static ArgumentBuilder<CommandSourceStack, ?> scaleEdit() {
+        return Commands.literal("scale")
+            .then(Commands.argument("scale", DoubleArgumentType.doubleArg(0.1, 2.0))
+                .executes(context -> {
+                    double scale = DoubleArgumentType.getDouble(context, "scale");
+                    return startEdit(context, edit -> edit.scale(scale));
+                }));
+    }
+
+    private static FigureType getFigureType(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        String name = StringArgumentType.getString(context, "figure");
+        for (FigureType type : FigureType.values()) {
+            if (type.getSerializedName().equals(name)) {
+                return type;
+            }
+        }
+        throw UNKNOWN_FIGURE.create(name);
+    }
+
+    private static PopBlockColor getColor(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        String name = StringArgumentType.getString(context, "color");
+        for (PopBlockColor color : PopBlockColor.values()) {
+            if (color.getSerializedName().equals(name)) {
+                return color;
+            }
+        }
+        throw UNKNOWN_COLOR.create(name);
+    }
+
+    private static int startEdit(CommandContext<CommandSourceStack> context, Consumer<BoxBlockEntity.Edit> operation) throws CommandSyntaxException {
+        CommandSourceStack source = context.getSource();
+        BoundingBox bounds = BoundingBox.fromCorners(
+            BlockPosArgument.getBlockPos(context, "from"),
+            BlockPosArgument.getBlockPos(context, "to"));
+
+        long chunks = RegionEditJob.countChunks(bounds);
+        int maxChunks = BlockPopsConfig.SERVER.regionEditMaxChunks.get();
+        if (chunks > maxChunks) {
+            throw REGION_TOO_LARGE.create(chunks, maxChunks);
+        }
+
+        RegionEditJob job = new RegionEditJob(source.getTextName(), source, bounds, operation);
+        if (!RegionEditScheduler.submit(job)) {
+            throw JOB_RUNNING.create();
+        }
+        source.sendSuccess(() -> Component.literal("Region edit started"), true);
+        return 1;
+    }
+
+    private static int status(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        RegionEditJob job = RegionEditScheduler.getJob(context.getSource().getTextName());
+        if (job == null) {
+            throw NO_JOB.create();
+        }
+        context.getSource().sendSuccess(() -> Component.literal(job.getStatus()), false);
+        return 1;
+    }
+
+    private static int cancel(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        if (!RegionEditScheduler.cancel(context.getSource().getTextName())) {
+            throw NO_JOB.create();
+        }
+        return 1;
+    }
+
+    private static BoxCatalog getCatalog(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        BoxCatalog catalog = BoxCatalogs.get(context.getSource().getLevel());
+        if (catalog == null) {
+            throw NO_CATALOG.create();
+        }
+        return catalog;
+    }
+
+    private static String rebuildingNote(BoxCatalog catalog) {
+        return catalog.isRebuilding() ? " (catalog is still rebuilding, results are incomplete)" : "";
+    }
+
+    private static int countBoxes(CommandContext<CommandSourceStack> context, Predicate<BoxCatalog.Entry> filter) throws CommandSyntaxException {
+        BoxCatalog catalog = getCatalog(context);
+        long start = System.nanoTime();
+        int[] count = new int[1];
+        catalog.query(filter, entry -> count[0]++);
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+        context.getSource().sendSuccess(() -> Component.literal(String.format("%d boxes found in %.2fms%s",
+            count[0], millis, rebuildingNote(catalog))), false);
+        return count[0];
+    }
+
+    private static int findBoxes(CommandContext<CommandSourceStack> context, Predicate<BoxCatalog.Entry> filter) throws CommandSyntaxException {
+        BoxCatalog catalog = getCatalog(context);
+        List<BoxCatalog.Entry> found = new ArrayList<>();
+        int[] count = new int[1];
+        catalog.query(filter, entry -> {
+            if (count[0]++ < MAX_LISTED_BOXES) {
+                found.add(entry);
+            }
+        });
+
+        CommandSourceStack source = context.getSource();
+        source.sendSuccess(() -> Component.literal(String.format("%d boxes found%s", count[0], rebuildingNote(catalog))), false);
+        for (BoxCatalog.Entry entry : found) {
+            BlockPos pos = entry.blockPos();
+            source.sendSuccess(() -> Component.literal(String.format("  %d %d %d: %s, figure %s",
+                pos.getX(), pos.getY(), pos.getZ(), entry.color().getSerializedName(), entry.figureType().getSerializedName())), false);
+        }
+        if (count[0] > MAX_LISTED_BOXES) {
+            source.sendSuccess(() -> Component.literal(String.format("  ... and %d more", count[0] - MAX_LISTED_BOXES)), false);
+        }
+        return count[0];
+    }
+
+    private static int rebuildCatalog(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        getCatalog(context);
+        if (!BoxCatalogs.rebuild(context.getSource().getLevel())) {
+            throw REBUILD_RUNNING.create();
+        }
+        context.getSource().sendSuccess(() -> Component.literal("Box catalog rebuild started"), true);
+        return 1;
+    }
+}
@@ -0,0 +1,150 @@
+package com.theplumteam.command;
+
+import com.theplumteam.blockentity.BoxBlockEntity;
+import com.theplumteam.network.BoxUpdateBatch;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A figure edit applied to every box inside a region, one chunk at a time.
+ * The scheduler calls {@link #run(long)} every server tick until the job is done.
+ *
+ * <p>Only the chunks loaded when the job starts are visited, so the tick budget is not spent
+ * on coordinates that have nothing to edit.</p>
+ */
+public class RegionEditJob {
+    private final String owner;
+    private final CommandSourceStack source;
+    private final ServerLevel level;
+    private final BoundingBox bounds;
+    private final Consumer<BoxBlockEntity.Edit> operation;
+
+    private final LongList chunks;
+    private final long regionChunks;
+
+    private int nextChunk;
+    private int chunksUnloaded;
+    private int boxesFound;
+    private int boxesChanged;
+    private long lastReportNanos;
+
+    public RegionEditJob(String owner, CommandSourceStack source, BoundingBox bounds, Consumer<BoxBlockEntity.Edit> operation) {
+        this.owner = owner;
+        this.source = source;
+        this.level = source.getLevel();
+        this.bounds = bounds;
+        this.operation = operation;
+
+        this.regionChunks = countChunks(bounds);
+        this.chunks = collectLoadedChunks(level, bounds);
+        this.lastReportNanos = System.nanoTime();
+    }
+
+    /**
+     * Number of chunk columns the region touches.
+     */
+    public static long countChunks(BoundingBox bounds) {
+        long chunksAlongX = SectionPos.blockToSectionCoord(bounds.maxX()) - SectionPos.blockToSectionCoord(bounds.minX()) + 1L;
+        long chunksAlongZ = SectionPos.blockToSectionCoord(bounds.maxZ()) - SectionPos.blockToSectionCoord(bounds.minZ()) + 1L;
+        return chunksAlongX * chunksAlongZ;
+    }
+
+    private static LongList collectLoadedChunks(ServerLevel level, BoundingBox bounds) {
+        // Only walk chunks that are already loaded, a region edit must never load or generate chunks
+        LongList chunks = new LongArrayList();
+        int maxChunkX = SectionPos.blockToSectionCoord(bounds.maxX());
+        int maxChunkZ = SectionPos.blockToSectionCoord(bounds.maxZ());
+        for (int chunkZ = SectionPos.blockToSectionCoord(bounds.minZ()); chunkZ <= maxChunkZ; chunkZ++) {
+            for (int chunkX = SectionPos.blockToSectionCoord(bounds.minX()); chunkX <= maxChunkX; chunkX++) {
+                if (level.getChunkSource().getChunkNow(chunkX, chunkZ) != null) {
+                    chunks.add(ChunkPos.asLong(chunkX, chunkZ));
+                }
+            }
+        }
+        return chunks;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public boolean isDone() {
+        return nextChunk >= chunks.size();
+    }
+
+    /**
+     * Processes chunks until the deadline passes. At least one chunk is processed per call
+     * so a job always makes progress, even on an overloaded server.
+     */
+    public void run(long deadlineNanos) {
+        if (isDone()) {
+            return;
+        }
+        do {
+            long chunkPos = chunks.getLong(nextChunk);
+            processChunk(ChunkPos.getX(chunkPos), ChunkPos.getZ(chunkPos));
+            nextChunk++;
+        } while (!isDone() && System.nanoTime() < deadlineNanos);
+
+        long reportIntervalNanos = RegionEditScheduler.getReportSeconds() * 1_000_000_000L;
+        if (!isDone() && System.nanoTime() - lastReportNanos >= reportIntervalNanos) {
+            lastReportNanos = System.nanoTime();
+            source.sendSuccess(() -> Component.literal(getStatus()), false);
+        }
+    }
+
+    public String getStatus() {
+        return String.format("Region edit: %d/%d chunks, %d of %d boxes changed",
+            nextChunk, chunks.size(), boxesChanged, boxesFound);
+    }
+
+    public void reportFinished() {
+        source.sendSuccess(() -> Component.literal(String.format(
+            "Region edit finished: %d of %d boxes changed in %d chunks (%d unloaded chunks skipped)",
+            boxesChanged, boxesFound, chunks.size() - chunksUnloaded, regionChunks - chunks.size() + chunksUnloaded)), true);
+    }
+
+    public void reportCancelled() {
+        source.sendSuccess(() -> Component.literal(String.format(
+            "Region edit cancelled after %d/%d chunks, %d boxes changed",
+            nextChunk, chunks.size(), boxesChanged)), true);
+    }
+
+    private void processChunk(int chunkX, int chunkZ) {
+        // The chunk may have unloaded since the job started
+        LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+        if (chunk == null) {
+            chunksUnloaded++;
+            return;
+        }
+
+        List<BoxBlockEntity> changed = new ArrayList<>();
+        for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+            if (blockEntity instanceof BoxBlockEntity boxBlockEntity && bounds.isInside(boxBlockEntity.getBlockPos())) {
+                boxesFound++;
+                BoxBlockEntity.Edit edit = boxBlockEntity.edit();
+                operation.accept(edit);
+                if (edit.commitWithoutSync()) {
+                    boxesChanged++;
+                    changed.add(boxBlockEntity);
+                }
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            BoxUpdateBatch.send(level, changed);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.theplumteam.command;
+
+import com.theplumteam.BlockPopsMod;
+import com.theplumteam.config.BlockPopsConfig;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Runs region edit jobs spread over server ticks, sharing one per-tick time budget between them.
+ */
+@Mod.EventBusSubscriber(modid = BlockPopsMod.MOD_ID)
+public final class RegionEditScheduler {
+    private static final List<RegionEditJob> JOBS = new ArrayList<>();
+
+    private RegionEditScheduler() {
+    }
+
+    static boolean submit(RegionEditJob job) {
+        if (getJob(job.getOwner()) != null) {
+            return false;
+        }
+        JOBS.add(job);
+        return true;
+    }
+
+    static boolean cancel(String owner) {
+        RegionEditJob job = getJob(owner);
+        if (job == null) {
+            return false;
+        }
+        JOBS.remove(job);
+        job.reportCancelled();
+        return true;
+    }
+
+    @Nullable
+    static RegionEditJob getJob(String owner) {
+        for (RegionEditJob job : JOBS) {
+            if (job.getOwner().equals(owner)) {
+                return job;
+            }
+        }
+        return null;
+    }
+
+    static int getReportSeconds() {
+        return BlockPopsConfig.SERVER.regionEditReportSeconds.get();
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || JOBS.isEmpty()) {
+            return;
+        }
+
+        // Split the budget evenly so one huge job can't starve the others
+        long budgetNanos = BlockPopsConfig.SERVER.regionEditBudgetMillis.get() * 1_000_000L;
+        long sliceNanos = budgetNanos / JOBS.size();
+        Iterator<RegionEditJob> iterator = JOBS.iterator();
+        while (iterator.hasNext()) {
+            RegionEditJob job = iterator.next();
+            job.run(System.nanoTime() + sliceNanos);
+            if (job.isDone()) {
+                iterator.remove();
+                job.reportFinished();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        JOBS.clear();
+    }
+}
@@ -0,0 +1,116 @@
+package com.theplumteam.config;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+import org.apache.commons.lang3.tuple.Pair;
+
+public final class BlockPopsConfig {
+    public static final ForgeConfigSpec CLIENT_SPEC;
+    public static final Client CLIENT;
+    public static final ForgeConfigSpec SERVER_SPEC;
+    public static final Server SERVER;
+
+    static {
+        Pair<Client, ForgeConfigSpec> client = new ForgeConfigSpec.Builder().configure(Client::new);
+        CLIENT = client.getLeft();
+        CLIENT_SPEC = client.getRight();
+
+        Pair<Server, ForgeConfigSpec> server = new ForgeConfigSpec.Builder().configure(Server::new);
+        SERVER = server.getLeft();
+        SERVER_SPEC = server.getRight();
+    }
+
+    private BlockPopsConfig() {
+    }
+
+    public static final class Client {
+        public final ForgeConfigSpec.IntValue animationCacheTimeoutSeconds;
+        public final ForgeConfigSpec.BooleanValue renderBudgetEnabled;
+        public final ForgeConfigSpec.IntValue renderBudgetTargetFps;
+        public final ForgeConfigSpec.IntValue renderBudgetMinBoxes;
+        public final ForgeConfigSpec.IntValue renderBudgetMaxBoxes;
+        public final ForgeConfigSpec.BooleanValue figureLodEnabled;
+        public final ForgeConfigSpec.IntValue figureLodFullDetailPixels;
+        public final ForgeConfigSpec.IntValue figureLodSimplifiedPixels;
+        public final ForgeConfigSpec.BooleanValue vectorTransforms;
+
+        Client(ForgeConfigSpec.Builder builder) {
+            builder.push("animation");
+
+            animationCacheTimeoutSeconds = builder
+                .comment("Seconds a box can stay out of view before its animation state is released")
+                .defineInRange("cacheTimeoutSeconds", 30, 1, 3600);
+
+            builder.pop();
+            builder.push("renderBudget");
+
+            renderBudgetEnabled = builder
+                .comment("Limit how many boxes get animation and figure rendering per frame, based on frame time")
+                .define("enabled", true);
+            renderBudgetTargetFps = builder
+                .comment("Frame rate the render budget tries to hold")
+                .defineInRange("targetFps", 60, 10, 360);
+            renderBudgetMinBoxes = builder
+                .comment("Nearest boxes that always get full rendering")
+                .defineInRange("minBoxes", 32, 0, 100000);
+            renderBudgetMaxBoxes = builder
+                .comment("Upper limit of boxes with full rendering per frame")
+                .defineInRange("maxBoxes", 4096, 1, 100000);
+
+            builder.pop();
+            builder.push("figureLod");
+
+            figureLodEnabled = builder
+                .comment("Draw distant figures with simplified meshes")
+                .define("enabled", true);
+            figureLodFullDetailPixels = builder
+                .comment("On-screen height in pixels from which figures are drawn at full detail")
+                .defineInRange("fullDetailPixels", 96, 1, 4096);
+            figureLodSimplifiedPixels = builder
+                .comment("On-screen height in pixels from which figures use the first simplified level, below it the coarsest")
+                .defineInRange("simplifiedPixels", 32, 1, 4096);
+
+            builder.pop();
+            builder.push("rendering");
+
+            vectorTransforms = builder
+                .comment("Transform box vertices with SIMD instructions when the JVM was started with --add-modules jdk.incubator.vector")
+                .define("vectorTransforms", true);
+
+            builder.pop();
+        }
+    }
+
+    public static final class Server {
+        public final ForgeConfigSpec.IntValue regionEditBudgetMillis;
+        public final ForgeConfigSpec.IntValue regionEditReportSeconds;
+        public final ForgeConfigSpec.IntValue regionEditMaxChunks;
+        public final ForgeConfigSpec.IntValue figureStreamBytesPerTick;
+        public final ForgeConfigSpec.IntValue figureStreamDeferDistance;
+
+        Server(ForgeConfigSpec.Builder builder) {
+            builder.push("regionEdit");
+
+            regionEditBudgetMillis = builder
+                .comment("Milliseconds per server tick that /blockpops region edits may spend")
+                .defineInRange("budgetMillis", 5, 1, 40);
+            regionEditReportSeconds = builder
+                .comment("Seconds between progress messages of a running region edit")
+                .defineInRange("reportSeconds", 2, 1, 60);
+            regionEditMaxChunks = builder
+                .comment("Largest region, in chunks, that a single /blockpops region edit may cover")
+                .defineInRange("maxChunks", 16384, 1, 262144);
+
+            builder.pop();
+            builder.push("figureStream");
+
+            figureStreamBytesPerTick = builder
+                .comment("Most bytes of box figure data sent to each player per tick after their chunks arrive")
+                .defineInRange("bytesPerTick", 8192, 256, 1048576);
+            figureStreamDeferDistance = builder
+                .comment("Boxes further than this many blocks from a player get their figure data once the player comes closer")
+                .defineInRange("deferDistance", 64, 8, 512);
+
+            builder.pop();
+        }
+    }
+}
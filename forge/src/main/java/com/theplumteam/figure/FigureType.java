@@ -36,4 +36,11 @@ public enum FigureType implements StringRepresentable {
         }
         return "geo/figure/box_figure_" + name + ".geo.json";
     }
+
+    public String getTexturePath() {
+        if (this == NONE) {
+            return null;
+        }
+        return "textures/figure/box_figure_" + name + ".png";
+    }
 }
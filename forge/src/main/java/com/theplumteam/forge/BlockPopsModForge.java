@@ -1,21 +1,29 @@
 package com.theplumteam.forge;
 
 import com.theplumteam.BlockPopsMod;
+import com.theplumteam.config.BlockPopsConfig;
+import com.theplumteam.network.FigureBatchEditPacket;
 import com.theplumteam.network.FigurePositionPacket;
+import com.theplumteam.network.FigureStreamPacket;
 import com.theplumteam.registry.ModBlockEntities;
 import com.theplumteam.registry.ModBlocks;
 import com.theplumteam.registry.ModCreativeTabs;
 import com.theplumteam.registry.ModItems;
 import dev.architectury.platform.forge.EventBuses;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkRegistry;
 import net.minecraftforge.network.simple.SimpleChannel;
 
+import java.util.Optional;
+
 @Mod(BlockPopsMod.MOD_ID)
 public final class BlockPopsModForge {
-    private static final String PROTOCOL_VERSION = "1";
+    private static final String PROTOCOL_VERSION = "4";
     public static final SimpleChannel NETWORK_CHANNEL = NetworkRegistry.newSimpleChannel(
             new ResourceLocation(BlockPopsMod.MOD_ID, "main"),
             () -> PROTOCOL_VERSION,
@@ -27,6 +35,10 @@ public final class BlockPopsModForge {
         // Submit our event bus to let Architectury API register our content on the right time.
         EventBuses.registerModEventBus(BlockPopsMod.MOD_ID, FMLJavaModLoadingContext.get().getModEventBus());
 
+        // Register configs
+        ModLoadingContext.get().registerConfig(ModConfig.Type.CLIENT, BlockPopsConfig.CLIENT_SPEC);
+        ModLoadingContext.get().registerConfig(ModConfig.Type.SERVER, BlockPopsConfig.SERVER_SPEC);
+
         // Register Forge-specific content
         ModBlocks.register();
         ModItems.register();
@@ -48,5 +60,18 @@ public final class BlockPopsModForge {
                 FigurePositionPacket::decode,
                 FigurePositionPacket::handle
         );
+        NETWORK_CHANNEL.registerMessage(packetId++,
+                FigureBatchEditPacket.class,
+                FigureBatchEditPacket::encode,
+                FigureBatchEditPacket::decode,
+                FigureBatchEditPacket::handle
+        );
+        NETWORK_CHANNEL.registerMessage(packetId++,
+                FigureStreamPacket.class,
+                FigureStreamPacket::encode,
+                FigureStreamPacket::decode,
+                FigureStreamPacket::handle,
+                Optional.of(NetworkDirection.PLAY_TO_CLIENT)
+        );
     }
 }
@@ -1,9 +1,15 @@
 package com.theplumteam.forge;
 
+import com.theplumteam.client.animation.AnimationTables;
+import com.theplumteam.client.model.CompositeBoxModel;
+import com.theplumteam.client.model.FigureAssets;
+import com.theplumteam.client.renderer.BoneMesh;
 import com.theplumteam.client.renderer.BoxBlockRenderer;
 import com.theplumteam.registry.ModBlockEntities;
+import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.client.event.EntityRenderersEvent;
+import net.minecraftforge.client.event.RegisterClientReloadListenersEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
@@ -13,4 +19,15 @@ public class BlockPopsModForgeClient {
     public static void registerRenderers(EntityRenderersEvent.RegisterRenderers event) {
         event.registerBlockEntityRenderer(ModBlockEntities.BOX_BLOCK.get(), context -> new BoxBlockRenderer());
     }
+
+    @SubscribeEvent
+    public static void registerReloadListeners(RegisterClientReloadListenersEvent event) {
+        // Animation tables, composite models and bone meshes are built from GeckoLib's baked resources, drop them when those reload
+        event.registerReloadListener((ResourceManagerReloadListener) resourceManager -> {
+            AnimationTables.clear();
+            CompositeBoxModel.clearCache();
+            FigureAssets.clear();
+            BoneMesh.clearCache();
+        });
+    }
 }
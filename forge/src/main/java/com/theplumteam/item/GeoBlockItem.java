@@ -1,15 +1,21 @@
 package com.theplumteam.item;
 
 import com.theplumteam.block.BoxBlock;
+import com.theplumteam.block.PopBlockColor;
 import com.theplumteam.client.renderer.BoxBlockItemRenderer;
 import net.minecraft.client.renderer.BlockEntityWithoutLevelRenderer;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.BlockItem;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.Block;
 import net.minecraftforge.client.extensions.common.IClientItemExtensions;
 
 import java.util.function.Consumer;
 
 public class GeoBlockItem extends BlockItem {
+    private static final String BLOCK_STATE_TAG = "BlockStateTag";
+
     private BlockEntityWithoutLevelRenderer renderer;
 
     public GeoBlockItem(Block block, Properties properties) {
@@ -20,6 +26,32 @@ public class GeoBlockItem extends BlockItem {
         return (BoxBlock) getBlock();
     }
 
+    /**
+     * Creates a box stack of the given color. The color is stored in the stack's BlockStateTag,
+     * so BlockItem applies it to the placed block without any extra handling.
+     */
+    public static ItemStack createStack(Item item, PopBlockColor color) {
+        ItemStack stack = new ItemStack(item);
+        if (color != PopBlockColor.ORIGINAL) {
+            stack.getOrCreateTagElement(BLOCK_STATE_TAG).putString(BoxBlock.COLOR.getName(), color.getSerializedName());
+        }
+        return stack;
+    }
+
+    public static PopBlockColor getColor(ItemStack stack) {
+        CompoundTag blockStateTag = stack.getTagElement(BLOCK_STATE_TAG);
+        if (blockStateTag != null) {
+            return BoxBlock.COLOR.getValue(blockStateTag.getString(BoxBlock.COLOR.getName())).orElse(PopBlockColor.ORIGINAL);
+        }
+        return PopBlockColor.ORIGINAL;
+    }
+
+    @Override
+    public String getDescriptionId(ItemStack stack) {
+        // Keep the per-color names from when every color was its own item
+        return getDescriptionId() + "_" + getColor(stack).getSerializedName();
+    }
+
     @Override
     public void initializeClient(Consumer<IClientItemExtensions> consumer) {
         consumer.accept(new IClientItemExtensions() {
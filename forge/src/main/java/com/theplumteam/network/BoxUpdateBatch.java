@@ -0,0 +1,49 @@
+package com.theplumteam.network;
+
+import com.theplumteam.blockentity.BoxBlockEntity;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBundlePacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Syncs many edited boxes to clients as one bundle packet per chunk, instead of one
+ * block update per box. Used together with {@link BoxBlockEntity.Edit#commitWithoutSync()}.
+ */
+public final class BoxUpdateBatch {
+    // Vanilla refuses bundles with more packets than this
+    private static final int MAX_BUNDLE_SIZE = 4096;
+
+    private BoxUpdateBatch() {
+    }
+
+    public static void send(ServerLevel level, Collection<BoxBlockEntity> boxes) {
+        Map<ChunkPos, List<Packet<ClientGamePacketListener>>> updatesByChunk = new HashMap<>();
+        for (BoxBlockEntity box : boxes) {
+            updatesByChunk.computeIfAbsent(new ChunkPos(box.getBlockPos()), chunkPos -> new ArrayList<>())
+                .add(box.getUpdatePacket());
+        }
+
+        updatesByChunk.forEach((chunkPos, updates) -> {
+            List<ServerPlayer> players = level.getChunkSource().chunkMap.getPlayers(chunkPos, false);
+            if (players.isEmpty()) {
+                return;
+            }
+            for (int start = 0; start < updates.size(); start += MAX_BUNDLE_SIZE) {
+                List<Packet<ClientGamePacketListener>> batch = updates.subList(start, Math.min(updates.size(), start + MAX_BUNDLE_SIZE));
+                Packet<ClientGamePacketListener> packet = batch.size() == 1 ? batch.get(0) : new ClientboundBundlePacket(batch);
+                for (ServerPlayer player : players) {
+                    player.connection.send(packet);
+                }
+            }
+        });
+    }
+}
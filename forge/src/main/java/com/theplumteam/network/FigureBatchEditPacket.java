@@ -0,0 +1,186 @@
+package com.theplumteam.network;
+
+import com.theplumteam.blockentity.BoxBlockEntity;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.network.NetworkEvent;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Applies one figure transform to many boxes at once, sent by the multi-select mode of
+ * FigurePositionScreen. In absolute mode every box gets the given offset and scale. In
+ * relative mode the offset is added to, and the scale multiplied with, the values each box had
+ * when the relative session started.
+ *
+ * <p>Relative packets always carry the total change since the session started, and the server
+ * remembers each box's starting values per player. Small slider steps the box would round
+ * away, or values that were clamped along the way, therefore never make the boxes drift from
+ * what the sliders show.</p>
+ */
+public class FigureBatchEditPacket {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FigureBatchEditPacket.class);
+
+    public static final int MAX_POSITIONS = 256;
+    // How far from the player an edited box may be
+    private static final double MAX_EDIT_DISTANCE = 32.0;
+
+    // Same ranges as the sliders in FigurePositionScreen
+    private static final double MIN_OFFSET = -1.0;
+    private static final double MAX_OFFSET = 1.0;
+    private static final double MIN_SCALE = 0.1;
+    private static final double MAX_SCALE = 2.0;
+
+    // Starting values of the boxes in each player's current relative session. Server thread only,
+    // weak so the entries go away with the player.
+    private static final Map<ServerPlayer, RelativeSession> SESSIONS = new WeakHashMap<>();
+
+    private final List<BlockPos> positions;
+    private final boolean relative;
+    // Identifies the relative session, unused in absolute mode
+    private final int session;
+    private final double offsetX;
+    private final double offsetY;
+    private final double offsetZ;
+    private final double scale;
+
+    /**
+     * @param scale the scale in absolute mode, or the factor to multiply it with in relative mode
+     */
+    public FigureBatchEditPacket(List<BlockPos> positions, boolean relative, int session,
+                                 double offsetX, double offsetY, double offsetZ, double scale) {
+        this.positions = positions;
+        this.relative = relative;
+        this.session = session;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.offsetZ = offsetZ;
+        this.scale = scale;
+    }
+
+    public static void encode(FigureBatchEditPacket packet, FriendlyByteBuf buffer) {
+        // Positions after the first are sent as deltas, which are small for boxes on the same shelf
+        buffer.writeVarInt(packet.positions.size());
+        BlockPos previous = BlockPos.ZERO;
+        for (BlockPos pos : packet.positions) {
+            buffer.writeVarInt(pos.getX() - previous.getX());
+            buffer.writeVarInt(pos.getY() - previous.getY());
+            buffer.writeVarInt(pos.getZ() - previous.getZ());
+            previous = pos;
+        }
+        buffer.writeBoolean(packet.relative);
+        buffer.writeVarInt(packet.session);
+        buffer.writeDouble(packet.offsetX);
+        buffer.writeDouble(packet.offsetY);
+        buffer.writeDouble(packet.offsetZ);
+        buffer.writeDouble(packet.scale);
+    }
+
+    public static FigureBatchEditPacket decode(FriendlyByteBuf buffer) {
+        int count = buffer.readVarInt();
+        if (count < 0 || count > MAX_POSITIONS) {
+            throw new DecoderException("Batch edit of " + count + " boxes exceeds the limit of " + MAX_POSITIONS);
+        }
+        List<BlockPos> positions = new ArrayList<>(count);
+        BlockPos previous = BlockPos.ZERO;
+        for (int i = 0; i < count; i++) {
+            previous = previous.offset(buffer.readVarInt(), buffer.readVarInt(), buffer.readVarInt());
+            positions.add(previous);
+        }
+        boolean relative = buffer.readBoolean();
+        int session = buffer.readVarInt();
+        double offsetX = buffer.readDouble();
+        double offsetY = buffer.readDouble();
+        double offsetZ = buffer.readDouble();
+        double scale = buffer.readDouble();
+        // Mth.clamp lets NaN through, which would end up in the saved figure
+        if (!Double.isFinite(offsetX) || !Double.isFinite(offsetY) || !Double.isFinite(offsetZ) || !Double.isFinite(scale)) {
+            throw new DecoderException("Batch edit with a non-finite offset or scale");
+        }
+        return new FigureBatchEditPacket(positions, relative, session, offsetX, offsetY, offsetZ, scale);
+    }
+
+    public static void handle(FigureBatchEditPacket packet, Supplier<NetworkEvent.Context> contextSupplier) {
+        NetworkEvent.Context context = contextSupplier.get();
+        context.enqueueWork(() -> {
+            ServerPlayer player = context.getSender();
+            if (player == null) {
+                LOGGER.warn("Player is null in packet handler!");
+                return;
+            }
+
+            ServerLevel level = player.serverLevel();
+            RelativeSession session = null;
+            if (packet.relative) {
+                session = SESSIONS.get(player);
+                if (session == null || session.id != packet.session || session.level != level) {
+                    session = new RelativeSession(packet.session, level);
+                    SESSIONS.put(player, session);
+                }
+            } else {
+                SESSIONS.remove(player);
+            }
+
+            List<BoxBlockEntity> changed = new ArrayList<>();
+            for (BlockPos pos : packet.positions) {
+                if (!level.isLoaded(pos) || player.distanceToSqr(Vec3.atCenterOf(pos)) > MAX_EDIT_DISTANCE * MAX_EDIT_DISTANCE) {
+                    continue;
+                }
+                BlockEntity blockEntity = level.getBlockEntity(pos);
+                if (blockEntity instanceof BoxBlockEntity boxBlockEntity && packet.apply(boxBlockEntity, session)) {
+                    changed.add(boxBlockEntity);
+                }
+            }
+
+            // One sync per chunk for the whole batch
+            BoxUpdateBatch.send(level, changed);
+            LOGGER.debug("Batch edit from {} changed {} of {} boxes", player.getName().getString(), changed.size(), packet.positions.size());
+        });
+        context.setPacketHandled(true);
+    }
+
+    private boolean apply(BoxBlockEntity box, @Nullable RelativeSession session) {
+        double x = offsetX;
+        double y = offsetY;
+        double z = offsetZ;
+        double s = scale;
+        if (session != null) {
+            // Boxes first touched later in the session start from their values at that point
+            double[] start = session.startValues.computeIfAbsent(box.getBlockPos().immutable(), pos -> new double[] {
+                box.getFigureOffsetX(), box.getFigureOffsetY(), box.getFigureOffsetZ(), box.getFigureScale()});
+            x += start[0];
+            y += start[1];
+            z += start[2];
+            s *= start[3];
+        }
+        return box.edit()
+            .offset(Mth.clamp(x, MIN_OFFSET, MAX_OFFSET), Mth.clamp(y, MIN_OFFSET, MAX_OFFSET), Mth.clamp(z, MIN_OFFSET, MAX_OFFSET))
+            .scale(Mth.clamp(s, MIN_SCALE, MAX_SCALE))
+            .commitWithoutSync();
+    }
+
+    private static final class RelativeSession {
+        private final int id;
+        private final ServerLevel level;
+        private final Map<BlockPos, double[]> startValues = new HashMap<>();
+
+        private RelativeSession(int id, ServerLevel level) {
+            this.id = id;
+            this.level = level;
+        }
+    }
+}
@@ -57,10 +57,11 @@ public class FigurePositionPacket {
                 LOGGER.info("BlockEntity at {}: {}", packet.pos, blockEntity);
                 if (blockEntity instanceof BoxBlockEntity boxBlockEntity) {
                     LOGGER.info("Setting figure offset and scale on BoxBlockEntity");
-                    boxBlockEntity.setFigureOffset(packet.offsetX, packet.offsetY, packet.offsetZ);
-                    boxBlockEntity.setFigureScale(packet.scale);
-                    boxBlockEntity.setChanged();
-                    LOGGER.info("Figure offset and scale updated successfully");
+                    boolean changed = boxBlockEntity.edit()
+                        .offset(packet.offsetX, packet.offsetY, packet.offsetZ)
+                        .scale(packet.scale)
+                        .commit();
+                    LOGGER.info("Figure offset and scale {}", changed ? "updated successfully" : "unchanged");
                 } else {
                     LOGGER.warn("BlockEntity is not a BoxBlockEntity!");
                 }
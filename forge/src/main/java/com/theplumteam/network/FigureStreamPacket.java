@@ -0,0 +1,78 @@
+package com.theplumteam.network;
+
+import com.theplumteam.blockentity.BoxBlockEntity;
+import com.theplumteam.client.ClientPacketHandlers;
+import com.theplumteam.figure.FigureType;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Delivers the figure configuration of boxes whose chunks were sent without it, see
+ * {@link FigureStreamer}. Sent from the server to the client only.
+ */
+public class FigureStreamPacket {
+    // Largest encoded size of one entry, used for the per-tick byte budget: three position
+    // deltas of up to 5 bytes each (negative varints always take 5), the figure type and four floats
+    static final int ENTRY_BYTES = 3 * 5 + 1 + 4 * 4;
+    static final int MAX_ENTRIES = 4096;
+
+    private final List<Entry> entries;
+
+    public FigureStreamPacket(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    public record Entry(BlockPos pos, FigureType figureType, float offsetX, float offsetY, float offsetZ, float scale) {
+        static Entry of(BoxBlockEntity box) {
+            return new Entry(box.getBlockPos(), box.getFigureType(), (float) box.getFigureOffsetX(),
+                (float) box.getFigureOffsetY(), (float) box.getFigureOffsetZ(), (float) box.getFigureScale());
+        }
+    }
+
+    public static void encode(FigureStreamPacket packet, FriendlyByteBuf buffer) {
+        // Entries are sent nearest first, so neighbouring boxes follow each other and the position deltas stay small
+        buffer.writeVarInt(packet.entries.size());
+        BlockPos previous = BlockPos.ZERO;
+        for (Entry entry : packet.entries) {
+            buffer.writeVarInt(entry.pos().getX() - previous.getX());
+            buffer.writeVarInt(entry.pos().getY() - previous.getY());
+            buffer.writeVarInt(entry.pos().getZ() - previous.getZ());
+            buffer.writeEnum(entry.figureType());
+            buffer.writeFloat(entry.offsetX());
+            buffer.writeFloat(entry.offsetY());
+            buffer.writeFloat(entry.offsetZ());
+            buffer.writeFloat(entry.scale());
+            previous = entry.pos();
+        }
+    }
+
+    public static FigureStreamPacket decode(FriendlyByteBuf buffer) {
+        int count = buffer.readVarInt();
+        if (count < 0 || count > MAX_ENTRIES) {
+            throw new DecoderException("Figure stream of " + count + " boxes exceeds the limit of " + MAX_ENTRIES);
+        }
+        List<Entry> entries = new ArrayList<>(count);
+        BlockPos previous = BlockPos.ZERO;
+        for (int i = 0; i < count; i++) {
+            previous = previous.offset(buffer.readVarInt(), buffer.readVarInt(), buffer.readVarInt());
+            entries.add(new Entry(previous, buffer.readEnum(FigureType.class),
+                buffer.readFloat(), buffer.readFloat(), buffer.readFloat(), buffer.readFloat()));
+        }
+        return new FigureStreamPacket(entries);
+    }
+
+    public static void handle(FigureStreamPacket packet, Supplier<NetworkEvent.Context> contextSupplier) {
+        NetworkEvent.Context context = contextSupplier.get();
+        context.enqueueWork(() -> DistExecutor.unsafeRunWhenOn(Dist.CLIENT,
+            () -> () -> ClientPacketHandlers.handleFigureStream(packet.entries)));
+        context.setPacketHandled(true);
+    }
+}
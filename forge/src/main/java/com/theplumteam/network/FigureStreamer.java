@@ -0,0 +1,187 @@
+package com.theplumteam.network;
+
+import com.theplumteam.BlockPopsMod;
+import com.theplumteam.blockentity.BoxBlockEntity;
+import com.theplumteam.config.BlockPopsConfig;
+import com.theplumteam.forge.BlockPopsModForge;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.level.ChunkWatchEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.network.PacketDistributor;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends box figure configurations to players separately from their chunks. Chunk packets only
+ * carry what is needed to draw the box itself (see {@link BoxBlockEntity#getUpdateTag()}), and
+ * the figures follow here nearest first, within a per-player byte budget each tick. Boxes
+ * further away than the defer distance wait until the player comes closer.
+ *
+ * <p>This spreads the work of a player joining or teleporting into a dense display area over
+ * several ticks on both sides, instead of handling every box in one go on chunk arrival.</p>
+ */
+@Mod.EventBusSubscriber(modid = BlockPopsMod.MOD_ID)
+public final class FigureStreamer {
+    // Server thread only
+    private static final Map<UUID, PlayerStream> STREAMS = new HashMap<>();
+
+    private FigureStreamer() {
+    }
+
+    /**
+     * Boxes of one player that still need their figure, grouped by chunk.
+     */
+    private static final class PlayerStream {
+        private ResourceKey<Level> dimension;
+        private final Long2ObjectMap<LongList> pendingByChunk = new Long2ObjectOpenHashMap<>();
+
+        private PlayerStream(ResourceKey<Level> dimension) {
+            this.dimension = dimension;
+        }
+    }
+
+    private record Candidate(long pos, double distanceSqr) {
+    }
+
+    @SubscribeEvent
+    public static void onChunkWatch(ChunkWatchEvent.Watch event) {
+        ServerLevel level = event.getLevel();
+        ChunkPos chunkPos = event.getPos();
+        LevelChunk chunk = level.getChunkSource().getChunkNow(chunkPos.x, chunkPos.z);
+        if (chunk == null) {
+            return;
+        }
+
+        LongList boxes = new LongArrayList();
+        for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+            if (blockEntity instanceof BoxBlockEntity) {
+                boxes.add(blockEntity.getBlockPos().asLong());
+            }
+        }
+        if (boxes.isEmpty()) {
+            return;
+        }
+
+        PlayerStream stream = STREAMS.computeIfAbsent(event.getPlayer().getUUID(), uuid -> new PlayerStream(level.dimension()));
+        if (stream.dimension != level.dimension()) {
+            stream.dimension = level.dimension();
+            stream.pendingByChunk.clear();
+        }
+        stream.pendingByChunk.put(chunkPos.toLong(), boxes);
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnWatch(ChunkWatchEvent.UnWatch event) {
+        PlayerStream stream = STREAMS.get(event.getPlayer().getUUID());
+        if (stream != null && stream.dimension == event.getLevel().dimension()) {
+            stream.pendingByChunk.remove(event.getPos().toLong());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        STREAMS.remove(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || STREAMS.isEmpty()) {
+            return;
+        }
+
+        int budgetEntries = Mth.clamp(BlockPopsConfig.SERVER.figureStreamBytesPerTick.get() / FigureStreamPacket.ENTRY_BYTES,
+            1, FigureStreamPacket.MAX_ENTRIES);
+        double deferDistance = BlockPopsConfig.SERVER.figureStreamDeferDistance.get();
+        for (ServerPlayer player : event.getServer().getPlayerList().getPlayers()) {
+            PlayerStream stream = STREAMS.get(player.getUUID());
+            if (stream != null && !stream.pendingByChunk.isEmpty() && stream.dimension == player.level().dimension()) {
+                streamTo(player, stream, budgetEntries, deferDistance);
+            }
+        }
+    }
+
+    private static void streamTo(ServerPlayer player, PlayerStream stream, int budgetEntries, double deferDistance) {
+        ServerLevel level = player.serverLevel();
+        double deferDistanceSqr = deferDistance * deferDistance;
+        // Chunk corners can be up to this much further than the box nearest to the player
+        double chunkMargin = deferDistance + 12;
+
+        // Collect the boxes within the defer distance
+        List<Candidate> candidates = new ArrayList<>();
+        for (Long2ObjectMap.Entry<LongList> chunkEntry : stream.pendingByChunk.long2ObjectEntrySet()) {
+            ChunkPos chunkPos = new ChunkPos(chunkEntry.getLongKey());
+            double chunkDx = chunkPos.getMiddleBlockX() + 0.5 - player.getX();
+            double chunkDz = chunkPos.getMiddleBlockZ() + 0.5 - player.getZ();
+            if (chunkDx * chunkDx + chunkDz * chunkDz > chunkMargin * chunkMargin) {
+                continue;
+            }
+            LongList boxes = chunkEntry.getValue();
+            for (int i = 0; i < boxes.size(); i++) {
+                long pos = boxes.getLong(i);
+                double distanceSqr = player.distanceToSqr(BlockPos.getX(pos) + 0.5, BlockPos.getY(pos) + 0.5, BlockPos.getZ(pos) + 0.5);
+                if (distanceSqr <= deferDistanceSqr) {
+                    candidates.add(new Candidate(pos, distanceSqr));
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::distanceSqr));
+
+        List<FigureStreamPacket.Entry> entries = new ArrayList<>(Math.min(budgetEntries, candidates.size()));
+        for (int i = 0; i < candidates.size() && entries.size() < budgetEntries; i++) {
+            long pos = candidates.get(i).pos();
+            removePending(stream, pos);
+            BoxBlockEntity box = getBox(level, pos);
+            if (box != null) {
+                entries.add(FigureStreamPacket.Entry.of(box));
+            }
+        }
+        if (!entries.isEmpty()) {
+            BlockPopsModForge.NETWORK_CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new FigureStreamPacket(entries));
+        }
+    }
+
+    private static void removePending(PlayerStream stream, long pos) {
+        long chunkKey = ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4);
+        LongList boxes = stream.pendingByChunk.get(chunkKey);
+        if (boxes != null) {
+            boxes.rem(pos);
+            if (boxes.isEmpty()) {
+                stream.pendingByChunk.remove(chunkKey);
+            }
+        }
+    }
+
+    @Nullable
+    private static BoxBlockEntity getBox(ServerLevel level, long pos) {
+        BlockPos blockPos = BlockPos.of(pos);
+        LevelChunk chunk = level.getChunkSource().getChunkNow(blockPos.getX() >> 4, blockPos.getZ() >> 4);
+        if (chunk == null) {
+            return null;
+        }
+        return chunk.getBlockEntity(blockPos, LevelChunk.EntityCreationType.CHECK) instanceof BoxBlockEntity box ? box : null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.theplumteam.registry;
+
+import com.theplumteam.BlockPopsMod;
+import com.theplumteam.migration.LegacyBoxMigration;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.block.Block;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.registries.MissingMappingsEvent;
+
+/**
+ * Points the old per-color box ids ({@code box_block_<color>}) at the single box block and item,
+ * so worlds saved before the consolidation load without a missing registry entries prompt.
+ * This only fixes up the registry ids; the color itself is recovered from chunk and item data
+ * by {@link LegacyBoxMigration} before it is decoded.
+ */
+@Mod.EventBusSubscriber(modid = BlockPopsMod.MOD_ID)
+public class LegacyMappings {
+    @SubscribeEvent
+    public static void onMissingMappings(MissingMappingsEvent event) {
+        for (MissingMappingsEvent.Mapping<Block> mapping : event.getMappings(Registries.BLOCK, BlockPopsMod.MOD_ID)) {
+            if (LegacyBoxMigration.getLegacyColor(mapping.getKey().toString()) != null) {
+                mapping.remap(ModBlocks.BOX_BLOCK.get());
+            }
+        }
+        for (MissingMappingsEvent.Mapping<Item> mapping : event.getMappings(Registries.ITEM, BlockPopsMod.MOD_ID)) {
+            if (LegacyBoxMigration.getLegacyColor(mapping.getKey().toString()) != null) {
+                mapping.remap(ModItems.BOX_BLOCK_ITEM.get());
+            }
+        }
+    }
+}
@@ -2,37 +2,27 @@ package com.theplumteam.registry;
 
 import com.theplumteam.BlockPopsMod;
 import com.theplumteam.block.BoxBlock;
-import com.theplumteam.block.PopBlockColor;
 import dev.architectury.registry.registries.DeferredRegister;
 import dev.architectury.registry.registries.RegistrySupplier;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockBehaviour;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class ModBlocks {
     public static final DeferredRegister<Block> BLOCKS =
         DeferredRegister.create(BlockPopsMod.MOD_ID, Registries.BLOCK);
 
-    public static final Map<PopBlockColor, RegistrySupplier<Block>> BOX_BLOCKS = new HashMap<>();
-
-    static {
-        for (PopBlockColor color : PopBlockColor.values()) {
-            BOX_BLOCKS.put(color, BLOCKS.register(
-                "box_block_" + color.getSerializedName(),
-                () -> new BoxBlock(
-                    BlockBehaviour.Properties.of()
-                        .mapColor(color.getMapColor())
-                        .strength(1.5F, 6.0F)
-                        .requiresCorrectToolForDrops()
-                        .noOcclusion(),
-                    color
-                )
-            ));
-        }
-    }
+    // A single block for every color, the color itself is the BoxBlock.COLOR state property
+    public static final RegistrySupplier<Block> BOX_BLOCK = BLOCKS.register(
+        "box_block",
+        () -> new BoxBlock(
+            BlockBehaviour.Properties.of()
+                .mapColor(state -> BoxBlock.getColor(state).getMapColor())
+                .strength(1.5F, 6.0F)
+                .requiresCorrectToolForDrops()
+                .noOcclusion()
+        )
+    );
 
     public static void register() {
         BLOCKS.register();
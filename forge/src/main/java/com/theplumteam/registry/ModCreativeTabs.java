@@ -2,6 +2,7 @@ package com.theplumteam.registry;
 
 import com.theplumteam.BlockPopsMod;
 import com.theplumteam.block.PopBlockColor;
+import com.theplumteam.item.GeoBlockItem;
 import dev.architectury.registry.registries.DeferredRegister;
 import dev.architectury.registry.registries.RegistrySupplier;
 import net.minecraft.core.registries.Registries;
@@ -17,11 +18,11 @@ public class ModCreativeTabs {
         "blockpops_tab",
         () -> CreativeModeTab.builder(CreativeModeTab.Row.TOP, 0)
             .title(Component.translatable("itemGroup.blockpops.blockpops_tab"))
-            .icon(() -> new ItemStack(ModItems.BOX_BLOCK_ITEMS.get(PopBlockColor.ORIGINAL).get()))
+            .icon(() -> new ItemStack(ModItems.BOX_BLOCK_ITEM.get()))
             .displayItems((parameters, output) -> {
-                // Add all box blocks to the creative tab
+                // Add one box per color to the creative tab
                 for (PopBlockColor color : PopBlockColor.values()) {
-                    output.accept(ModItems.BOX_BLOCK_ITEMS.get(color).get());
+                    output.accept(GeoBlockItem.createStack(ModItems.BOX_BLOCK_ITEM.get(), color));
                 }
             })
             .build()
@@ -0,0 +1,43 @@
+package com.theplumteam.client.renderer;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+import org.joml.Matrix4f;
+
+/**
+ * Only loaded through {@link VertexTransform} after checking that the Vector API module is present.
+ */
+final class VectorVertexTransform extends VertexTransform {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public void transform(Matrix4f matrix, float[] x, float[] y, float[] z,
+                          float[] outX, float[] outY, float[] outZ, int count) {
+        float m00 = matrix.m00(), m01 = matrix.m01(), m02 = matrix.m02();
+        float m10 = matrix.m10(), m11 = matrix.m11(), m12 = matrix.m12();
+        float m20 = matrix.m20(), m21 = matrix.m21(), m22 = matrix.m22();
+        float m30 = matrix.m30(), m31 = matrix.m31(), m32 = matrix.m32();
+
+        int i = 0;
+        int bound = SPECIES.loopBound(count);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector vx = FloatVector.fromArray(SPECIES, x, i);
+            FloatVector vy = FloatVector.fromArray(SPECIES, y, i);
+            FloatVector vz = FloatVector.fromArray(SPECIES, z, i);
+            vz.fma(m20, vy.fma(m10, vx.fma(m00, m30))).intoArray(outX, i);
+            vz.fma(m21, vy.fma(m11, vx.fma(m01, m31))).intoArray(outY, i);
+            vz.fma(m22, vy.fma(m12, vx.fma(m02, m32))).intoArray(outZ, i);
+        }
+        // Remaining positions that don't fill a whole vector
+        for (; i < count; i++) {
+            outX[i] = m00 * x[i] + m10 * y[i] + m20 * z[i] + m30;
+            outY[i] = m01 * x[i] + m11 * y[i] + m21 * z[i] + m31;
+            outZ[i] = m02 * x[i] + m12 * y[i] + m22 * z[i] + m32;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "vectorized (" + SPECIES.length() + " lanes)";
+    }
+}